@@ -0,0 +1,82 @@
+package org.mule.tools.devkit.sonar;
+
+import com.sun.source.tree.*;
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Matches annotation trees against annotation classes by looking at the annotation type identifiers, no tree is printed.
+ */
+class AnnotationMatcher {
+
+    // Qualified name segments of each annotation class, computed once ...
+    private static final ClassValue<String[]> segments = new ClassValue<String[]>() {
+
+        @Override
+        protected String[] computeValue(Class<?> type) {
+            return type.getCanonicalName().split(Pattern.quote("."));
+        }
+    };
+
+    // Same for annotation types only known by name ...
+    private static final Map<String, String[]> segmentsByName = new ConcurrentHashMap<>();
+
+    private AnnotationMatcher() {
+
+    }
+
+    /**
+     * True if the annotation type is written as the simple name or as the canonical name of the class.
+     */
+    static boolean matches(@NonNull final AnnotationTree annotation, @NonNull final Class<?> annotationClass) {
+        return matches(annotation, segments.get(annotationClass));
+    }
+
+    static boolean matches(@NonNull final AnnotationTree annotation, @NonNull final String canonicalName) {
+        return matches(annotation, segmentsByName.computeIfAbsent(canonicalName, name -> name.split(Pattern.quote("."))));
+    }
+
+    private static boolean matches(@NonNull final AnnotationTree annotation, @NonNull final String[] names) {
+        Tree type = annotation.getAnnotationType();
+        if (type.getKind() == Tree.Kind.IDENTIFIER) {
+            return ((IdentifierTree) type).getName().contentEquals(names[names.length - 1]);
+        }
+
+        // Walk the qualified name from the right ...
+        int i = names.length - 1;
+        while (type.getKind() == Tree.Kind.MEMBER_SELECT) {
+            final MemberSelectTree memberSelect = (MemberSelectTree) type;
+            if (i == 0 || !memberSelect.getIdentifier().contentEquals(names[i])) {
+                return false;
+            }
+            type = memberSelect.getExpression();
+            i--;
+        }
+        return i == 0 && type.getKind() == Tree.Kind.IDENTIFIER && ((IdentifierTree) type).getName().contentEquals(names[0]);
+    }
+
+    /**
+     * True if the annotation is of the given class and its only argument, named 'value' or not, is the given string literal.
+     */
+    static boolean matchesValue(@NonNull final AnnotationTree annotation, @NonNull final Class<?> annotationClass, @NonNull final String value) {
+        final List<? extends ExpressionTree> arguments = annotation.getArguments();
+        if (arguments.size() != 1 || !matches(annotation, annotationClass)) {
+            return false;
+        }
+
+        ExpressionTree argument = arguments.get(0);
+        if (argument.getKind() == Tree.Kind.ASSIGNMENT) {
+            final AssignmentTree assignment = (AssignmentTree) argument;
+            final ExpressionTree variable = assignment.getVariable();
+            if (variable.getKind() != Tree.Kind.IDENTIFIER || !((IdentifierTree) variable).getName().contentEquals("value")) {
+                return false;
+            }
+            argument = assignment.getExpression();
+        }
+        return argument.getKind() == Tree.Kind.STRING_LITERAL && value.equals(((LiteralTree) argument).getValue());
+    }
+}
@@ -0,0 +1,150 @@
+package org.mule.tools.devkit.sonar;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.tools.devkit.sonar.exception.DevKitSonarRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Validates many connector modules in one JVM. The rule set is shared and modules are validated concurrently on a work-stealing pool.
+ */
+public class BatchValidator {
+
+    final private static Logger logger = LoggerFactory.getLogger(BatchValidator.class);
+
+    private final ConnectorModuleValidator validator;
+    private final int parallelism;
+
+    public BatchValidator(@NonNull final ConnectorModuleValidator validator, final int parallelism) {
+        this.validator = validator;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    @NonNull
+    public Map<Path, ModuleResult> execute(@NonNull final List<Path> modules) {
+        final ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            final List<ModuleResult> results = pool.submit(() -> modules.parallelStream().map(this::validate).collect(Collectors.toList())).get();
+
+            // Keep the order in which modules has been provided ...
+            final Map<Path, ModuleResult> result = new LinkedHashMap<>();
+            results.forEach(moduleResult -> result.put(moduleResult.getModulePath(), moduleResult));
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DevKitSonarRuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new DevKitSonarRuntimeException(e.getCause());
+        } finally {
+            pool.shutdown();
+            logger.info("Module contexts created: {}, evicted: {}, live: {}", ContextImpl.getCreatedInstances(), ContextImpl.getEvictedInstances(), ContextImpl.getLiveInstances());
+        }
+    }
+
+    @NonNull
+    private ModuleResult validate(@NonNull final Path modulePath) {
+        logger.debug("Validating module -> '{}'", modulePath);
+        try {
+            final Properties ignore = ConnectorModuleValidator.loadIgnore(modulePath);
+            return new ModuleResult(modulePath, validator.execute(modulePath, ignore, 1), null);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Module could not be validated -> " + modulePath, e);
+            return new ModuleResult(modulePath, Collections.emptySet(), e);
+        } finally {
+            // Modules are validated once, release class loader jars and parsed files ...
+            ContextImpl.invalidate(modulePath);
+        }
+    }
+
+    /**
+     * Expands batch arguments into module paths. An argument could be a module, a file listing one module per line prefixed with '@' or a directory to search
+     * for modules.
+     */
+    @NonNull
+    public static List<Path> resolveModules(@NonNull final List<String> args) throws IOException {
+        final Set<Path> result = new LinkedHashSet<>();
+        for (String arg : args) {
+            if (arg.startsWith("@")) {
+                final List<String> lines = Files.readAllLines(Paths.get(arg.substring(1)));
+                lines.stream().map(String::trim).filter(line -> !line.isEmpty() && !line.startsWith("#")).map(Paths::get).forEach(result::add);
+            } else {
+                final Path path = Paths.get(arg);
+                if (isModule(path)) {
+                    result.add(path);
+                } else {
+                    result.addAll(findModules(path));
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    @NonNull
+    public static List<Path> findModules(@NonNull final Path root) throws IOException {
+        final List<Path> result = new ArrayList<>();
+        Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                final String name = dir.getFileName() != null ? dir.getFileName().toString() : "";
+                if (!dir.equals(root) && (name.startsWith(".") || name.equals("target"))) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+
+                // Modules are not nested ...
+                if (isModule(dir)) {
+                    result.add(dir);
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) throws IOException {
+                logger.warn("Path could not be visited -> '{}'", file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return result;
+    }
+
+    private static boolean isModule(@NonNull final Path path) {
+        return Files.isRegularFile(path.resolve("pom.xml")) && Files.isDirectory(path.resolve("src/main/java"));
+    }
+
+    public static class ModuleResult {
+
+        private final Path modulePath;
+        private final Set<ValidationError> errors;
+        private final Throwable failure;
+
+        ModuleResult(@NonNull final Path modulePath, @NonNull final Set<ValidationError> errors, final Throwable failure) {
+            this.modulePath = modulePath;
+            this.errors = errors;
+            this.failure = failure;
+        }
+
+        @NonNull
+        public Path getModulePath() {
+            return modulePath;
+        }
+
+        @NonNull
+        public Set<ValidationError> getErrors() {
+            return errors;
+        }
+
+        @NonNull
+        public Optional<Throwable> getFailure() {
+            return Optional.ofNullable(failure);
+        }
+    }
+}
@@ -5,26 +5,24 @@ import com.sun.source.tree.ImportTree;
 import com.sun.source.tree.Tree;
 import com.sun.source.tree.VariableTree;
 import com.sun.tools.javac.tree.JCTree;
-import org.apache.commons.lang3.ClassUtils;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.mule.api.annotations.Connector;
 import org.mule.api.annotations.Processor;
 import org.mule.api.annotations.param.Default;
 import org.mule.api.annotations.param.RefOnly;
+import org.mule.tools.devkit.sonar.classpath.ClassInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
-import java.util.stream.Stream;
 
 public class ClassParserUtils {
 
     final private static Logger logger = LoggerFactory.getLogger(ClassParserUtils.class);
 
     private static final Set<String> primitives = new HashSet<>();
-    private static final String DEFAULT_PAYLOAD_EXPRESSION = "Default(\"#[payload]\")";
+    private static final String DEFAULT_PAYLOAD_EXPRESSION = "#[payload]";
 
     static {
         primitives.add("int");
@@ -64,12 +62,18 @@ public class ClassParserUtils {
         primitiveToBoxedType.put("short", java.lang.Short.class);
     }
 
-    final private static Set<Class<?>> allowedComplexTypes = new HashSet<>();
+    final private static Set<String> boxedTypes = new HashSet<>();
 
     static {
-        allowedComplexTypes.add(java.lang.String.class);
-        allowedComplexTypes.add(java.math.BigDecimal.class);
-        allowedComplexTypes.add(java.util.Date.class);
+        primitiveToBoxedType.values().forEach(type -> boxedTypes.add(type.getName()));
+    }
+
+    final private static Set<String> allowedComplexTypes = new HashSet<>();
+
+    static {
+        allowedComplexTypes.add(java.lang.String.class.getName());
+        allowedComplexTypes.add(java.math.BigDecimal.class.getName());
+        allowedComplexTypes.add(java.util.Date.class.getName());
     }
 
     private ClassParserUtils() {
@@ -77,19 +81,31 @@ public class ClassParserUtils {
     }
 
     public static boolean isPrimitive(@NonNull final Tree type, @NonNull Set<ImportTree> imports) {
-        Optional<Class<?>> clazz = classForName(type, imports);
-        return clazz.isPresent() && ClassUtils.isPrimitiveWrapper(clazz.get());
+        return isPrimitive(type, ImportScope.of(imports));
+    }
+
+    public static boolean isPrimitive(@NonNull final Tree type, @NonNull ImportScope scope) {
+        Optional<ClassInfo> clazz = classForName(type, scope);
+        return clazz.isPresent() && boxedTypes.contains(clazz.get().getName());
     }
 
     public static boolean isSimpleType(@NonNull final Tree type, @NonNull Set<ImportTree> imports) {
-        Optional<Class<?>> clazz = classForName(type, imports);
-        boolean result = isPrimitive(type, imports) || isEnum(type, imports) || (clazz.isPresent() && allowedComplexTypes.contains(clazz.get()));
+        return isSimpleType(type, ImportScope.of(imports));
+    }
+
+    public static boolean isSimpleType(@NonNull final Tree type, @NonNull ImportScope scope) {
+        Optional<ClassInfo> clazz = classForName(type, scope);
+        boolean result = isPrimitive(type, scope) || isEnum(type, scope) || (clazz.isPresent() && allowedComplexTypes.contains(clazz.get().getName()));
         logger.debug("Type '{}' is a simple type -> '{}'", type.toString(), result);
         return result;
     }
 
     public static boolean isEnum(@NonNull final Tree type, @NonNull final Set<ImportTree> imports) {
-        final Optional<Class<?>> optional = classForName(type, imports);
+        return isEnum(type, ImportScope.of(imports));
+    }
+
+    public static boolean isEnum(@NonNull final Tree type, @NonNull final ImportScope scope) {
+        final Optional<ClassInfo> optional = classForName(type, scope);
         return optional.isPresent() && optional.get().isEnum();
     }
 
@@ -118,8 +134,7 @@ public class ClassParserUtils {
     }
 
     public static boolean isDefaultPayloadAnnotation(@NonNull final AnnotationTree annotation) {
-        return annotation.toString().startsWith("@" + DEFAULT_PAYLOAD_EXPRESSION)
-                || annotation.toString().startsWith("@org.mule.api.annotations.param." + DEFAULT_PAYLOAD_EXPRESSION);
+        return AnnotationMatcher.matchesValue(annotation, Default.class, DEFAULT_PAYLOAD_EXPRESSION);
     }
 
     public static boolean isProcessorAnnotation(@NonNull final AnnotationTree annotation) {
@@ -139,17 +154,29 @@ public class ClassParserUtils {
     }
 
     public static boolean is(@NonNull AnnotationTree annotation, @NonNull final Class<?> annotationClass) {
-        final String annotationSimpleName = annotation.toString().split(Pattern.quote("("))[0];
-        return annotationSimpleName.equals("@" + annotationClass.getSimpleName()) || annotationSimpleName.equals("@" + annotationClass.getCanonicalName());
+        return AnnotationMatcher.matches(annotation, annotationClass);
+    }
+
+    public static boolean is(@NonNull AnnotationTree annotation, @NonNull final ClassInfo annotationClass) {
+        return AnnotationMatcher.matches(annotation, annotationClass.getCanonicalName());
     }
 
-    public static Optional<Class<?>> classForName(@NonNull final String classNameDef, @NonNull final Set<ImportTree> imports) {
+    public static Optional<ClassInfo> classForName(@NonNull final String classNameDef, @NonNull final Set<ImportTree> imports) {
+        return classForName(classNameDef, ImportScope.of(imports));
+    }
+
+    public static Optional<ClassInfo> classForName(@NonNull final String classNameDef, @NonNull final ImportScope scope) {
 
         // Is a generic declaration ?. Remove generic type ..
-        String className = classNameDef.split("<")[0];
+        final String className = classNameDef.split("<")[0];
+        return scope.resolve(className, name -> doClassForName(name, scope));
+    }
+
+    @NonNull
+    private static Optional<ClassInfo> doClassForName(@NonNull final String className, @NonNull final ImportScope scope) {
 
         // Is the class name fully qualified ?
-        Optional<Class<?>> result = Optional.empty();
+        Optional<ClassInfo> result = Optional.empty();
         final boolean isFullQualified = className.contains(".");
         if (isFullQualified) {
             result = findClass(className);
@@ -158,7 +185,7 @@ public class ClassParserUtils {
         // Object is a primitive class type ?
         if (!result.isPresent()) {
             if (primitives.contains(className)) {
-                result = Optional.of(primitiveToBoxedType.get(className));
+                result = findClass(primitiveToBoxedType.get(className).getName());
             } else if (defaultImportedClasses.contains(className)) {
                 result = findClass("java.lang." + className);
             }
@@ -166,24 +193,14 @@ public class ClassParserUtils {
 
         // Type to resolved based on the imports ...
         if (!result.isPresent()) {
-            final Optional<ImportTree> classImport = imports.stream().filter(imp -> !imp.isStatic() && imp.getQualifiedIdentifier().toString().endsWith("." + className))
-                    .findFirst();
-
+            final Optional<String> classImport = scope.findSingleImport(className);
             if (classImport.isPresent()) {
-                final String qualifiedName = classImport.get().getQualifiedIdentifier().toString();
-                result = findClass(qualifiedName);
+                result = findClass(classImport.get());
             }
         }
 
         if (!result.isPresent()) {
-            final Stream<ImportTree> statementsWithWildcard = imports.stream().filter(imp -> !imp.isStatic() && imp.getQualifiedIdentifier().toString().endsWith(".*"));
-            final Stream<String> importsWithWildcard = statementsWithWildcard.map(imp -> {
-                final String statementStr = imp.getQualifiedIdentifier().toString();
-                return statementStr.substring(0, statementStr.length() - 1);
-            });
-
-            final Stream<@NonNull String> fullQualifiedClasses = importsWithWildcard.map(importStr -> importStr + className);
-            result = fullQualifiedClasses.map(ClassParserUtils::findClass).filter(Optional::isPresent).map(Optional::get).findAny();
+            result = scope.getWildcardImports().stream().map(importStr -> findClass(importStr + className)).filter(Optional::isPresent).map(Optional::get).findAny();
         }
 
         if (!result.isPresent()) {
@@ -193,23 +210,19 @@ public class ClassParserUtils {
     }
 
     @NonNull
-    private static Optional<Class<?>> findClass(@NonNull String className) {
-        Optional<Class<?>> result = Optional.empty();
+    private static Optional<ClassInfo> findClass(@NonNull String className) {
 
-        try {
-            final Context instance = Context.getInstance();
-            final ClassLoader classLoader = instance.getModuleClassLoader();
+        // Lookups are cached by the module, misses included ...
+        return Context.getInstance().findClass(className);
+    }
 
-            result = Optional.ofNullable(Class.forName(className, false, classLoader));
-        } catch (ClassNotFoundException e) {
-            // Ignore ...
-        }
-        return result;
+    public static Optional<ClassInfo> classForName(@NonNull final Tree type, @NonNull final Set<ImportTree> imports) {
+        return classForName(type, ImportScope.of(imports));
     }
 
-    public static Optional<Class<?>> classForName(@NonNull final Tree type, @NonNull final Set<ImportTree> imports) {
+    public static Optional<ClassInfo> classForName(@NonNull final Tree type, @NonNull final ImportScope scope) {
         String classNameDef = extractType(type);
-        return classForName(classNameDef, imports);
+        return classForName(classNameDef, scope);
     }
 
     private static String extractType(@NonNull Tree type) {
@@ -225,6 +238,10 @@ public class ClassParserUtils {
         return annotations.stream().anyMatch(a -> ClassParserUtils.is(a, annotationClass));
     }
 
+    public static boolean contains(@NonNull final List<? extends AnnotationTree> annotations, @NonNull final ClassInfo annotationClass) {
+        return annotations.stream().anyMatch(a -> ClassParserUtils.is(a, annotationClass));
+    }
+
     public static Optional<? extends AnnotationTree> find(@NonNull final List<? extends AnnotationTree> annotations, @NonNull final Class<?> annotationClass) {
         return annotations.stream().filter(a -> ClassParserUtils.is(a, annotationClass)).findFirst();
     }
@@ -0,0 +1,217 @@
+package org.mule.tools.devkit.sonar;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.Trees;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.tools.devkit.sonar.exception.DevKitSonarRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Java sources parsed during a validation run, keyed by path and modification stamp. File managers are pooled and closed with the cache.
+ */
+public class CompilationUnitCache implements Closeable {
+
+    final private static Logger logger = LoggerFactory.getLogger(CompilationUnitCache.class);
+
+    // Sources are only parsed, annotation processors are never needed ...
+    private static final List<String> PARSER_OPTIONS = Collections.singletonList("-proc:none");
+    private static final Lazy<JavaCompiler> compiler = Lazy.of(ToolProvider::getSystemJavaCompiler);
+
+    // Sources are parsed outside the map lock, concurrent callers of the same source wait for the first parse ...
+    private final Map<Path, PendingUnit> units = new ConcurrentHashMap<>();
+    private final Map<Map.Entry<Path, String>, TokenScan> tokens = new ConcurrentHashMap<>();
+
+    // File managers are not thread safe, one is borrowed for every parse ...
+    private final Queue<StandardJavaFileManager> fileManagers = new ConcurrentLinkedQueue<>();
+
+    @NonNull
+    public ParsedUnit parse(@NonNull final Path sourcePath) {
+        final Path key = sourcePath.toAbsolutePath().normalize();
+        final FileTime stamp;
+        try {
+            stamp = Files.getLastModifiedTime(key);
+        } catch (IOException e) {
+            throw new DevKitSonarRuntimeException("Source file could not be read. File name " + key, e);
+        }
+        final PendingUnit pending = units.compute(key,
+                (path, unit) -> unit != null && unit.stamp.equals(stamp) ? unit : new PendingUnit(stamp, Lazy.of(() -> doParse(path))));
+        return pending.unit.get();
+    }
+
+    /**
+     * False if the bytes of the source file do not contain the token, e.g. the simple name of an annotation, so parsing it can be skipped.
+     * Files are memory mapped and scanned once per token and modification stamp.
+     */
+    public boolean mayContain(@NonNull final Path sourcePath, @NonNull final String token) {
+        final Path path = sourcePath.toAbsolutePath().normalize();
+        final FileTime stamp;
+        try {
+            stamp = Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+
+            // Let the parser report it ...
+            return true;
+        }
+        return tokens.compute(new AbstractMap.SimpleImmutableEntry<>(path, token),
+                (key, scan) -> scan != null && scan.stamp.equals(stamp) ? scan : new TokenScan(stamp, scan(path, token.getBytes(StandardCharsets.UTF_8)))).found;
+    }
+
+    private static boolean scan(@NonNull final Path sourcePath, @NonNull final byte[] token) {
+        try (final FileChannel channel = FileChannel.open(sourcePath, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE || token.length == 0) {
+                return true;
+            }
+
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            final int last = (int) size - token.length;
+            for (int i = 0; i <= last; i++) {
+                if (buffer.get(i) == token[0] && matches(buffer, i, token)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+
+            // Let the parser report it ...
+            logger.debug("Source file could not be scanned -> '{}'", sourcePath, e);
+            return true;
+        }
+    }
+
+    private static boolean matches(@NonNull final ByteBuffer buffer, final int offset, @NonNull final byte[] token) {
+        for (int j = 1; j < token.length; j++) {
+            if (buffer.get(offset + j) != token[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drops the parsed unit and the token scans of a source file, e.g. once it has been deleted.
+     */
+    public void evict(@NonNull final Path sourcePath) {
+        final Path path = sourcePath.toAbsolutePath().normalize();
+        units.remove(path);
+        tokens.keySet().removeIf(key -> key.getKey().equals(path));
+    }
+
+    /**
+     * Drops the parsed units and closes the pooled file managers. The cache can still be used afterwards.
+     */
+    @Override
+    public void close() {
+        units.clear();
+        tokens.clear();
+
+        StandardJavaFileManager fileManager;
+        while ((fileManager = fileManagers.poll()) != null) {
+            try {
+                fileManager.close();
+            } catch (IOException e) {
+                logger.warn("Java file manager could not be closed", e);
+            }
+        }
+    }
+
+    @NonNull
+    private ParsedUnit doParse(@NonNull final Path sourcePath) {
+        logger.debug("Parsing source file -> '{}'", sourcePath);
+
+        StandardJavaFileManager fileManager = fileManagers.poll();
+        if (fileManager == null) {
+            fileManager = compiler.get().getStandardFileManager(null, null, null);
+        }
+
+        try {
+            final Iterable<? extends JavaFileObject> compilationUnit = fileManager.getJavaFileObjectsFromFiles(Collections.singletonList(sourcePath.toFile()));
+
+            // Create the compilation task, a task can only be used once ...
+            final JavacTask task = (JavacTask) compiler.get().getTask(null, fileManager, null, PARSER_OPTIONS, null, compilationUnit);
+            final Iterator<? extends CompilationUnitTree> asts = task.parse().iterator();
+            if (!asts.hasNext()) {
+                throw new DevKitSonarRuntimeException("Source file could not be parsed. File name " + sourcePath);
+            }
+            return new ParsedUnit(asts.next(), Trees.instance(task));
+        } catch (IOException e) {
+            throw new DevKitSonarRuntimeException("Source file could not be parsed. File name " + sourcePath, e);
+        } finally {
+            fileManagers.offer(fileManager);
+        }
+    }
+
+    private static class TokenScan {
+
+        private final FileTime stamp;
+        private final boolean found;
+
+        TokenScan(@NonNull FileTime stamp, boolean found) {
+            this.stamp = stamp;
+            this.found = found;
+        }
+    }
+
+    private static class PendingUnit {
+
+        private final FileTime stamp;
+        private final Lazy<ParsedUnit> unit;
+
+        PendingUnit(@NonNull FileTime stamp, @NonNull Lazy<ParsedUnit> unit) {
+            this.stamp = stamp;
+            this.unit = unit;
+        }
+    }
+
+    public static class ParsedUnit {
+
+        private final CompilationUnitTree compilationUnit;
+        private final Trees trees;
+        private final Map<Object, Lazy<?>> memos = new ConcurrentHashMap<>();
+
+        ParsedUnit(@NonNull CompilationUnitTree compilationUnit, @NonNull Trees trees) {
+            this.compilationUnit = compilationUnit;
+            this.trees = trees;
+        }
+
+        @NonNull
+        public CompilationUnitTree getCompilationUnit() {
+            return compilationUnit;
+        }
+
+        @NonNull
+        public Trees getTrees() {
+            return trees;
+        }
+
+        /**
+         * Computes a value derived from this compilation unit once, no matter how many rules ask for it.
+         */
+        @NonNull
+        @SuppressWarnings("unchecked")
+        public <T> T memoize(@NonNull final Object key, @NonNull final Supplier<T> supplier) {
+            return (T) memos.computeIfAbsent(key, k -> Lazy.of(supplier)).get();
+        }
+    }
+}
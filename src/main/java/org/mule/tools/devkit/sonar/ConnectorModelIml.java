@@ -1,58 +1,250 @@
 package org.mule.tools.devkit.sonar;
 
-import com.sun.source.tree.AnnotationTree;
-import com.sun.source.tree.ClassTree;
-import com.sun.source.tree.CompilationUnitTree;
-import com.sun.source.tree.MethodTree;
-import com.sun.source.util.JavacTask;
+import com.sun.source.tree.*;
 import com.sun.source.util.TreePathScanner;
 import com.sun.source.util.Trees;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.api.annotations.Source;
+import org.mule.tools.devkit.sonar.cache.ResultCache;
+import org.mule.tools.devkit.sonar.classpath.ClassInfo;
 import org.mule.tools.devkit.sonar.exception.DevKitSonarRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import javax.tools.JavaCompiler;
-import javax.tools.JavaFileObject;
-import javax.tools.StandardJavaFileManager;
-import javax.tools.ToolProvider;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.nio.file.Path;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.util.*;
+import java.util.stream.Collectors;
 
+/**
+ * Connector class model built with a single walk over the connector source. The model is immutable and keeps no javac tree, so it can outlive the
+ * compilation unit it was read from. It can also be stored as a binary snapshot and read back without parsing the source.
+ */
 public class ConnectorModelIml implements Context.ConnectorModel {
 
+    final private static Logger logger = LoggerFactory.getLogger(ConnectorModelIml.class);
+
+    private static final String[] NONE = new String[0];
+    private static final String SNAPSHOT_FILE = "connector-model.bin";
+    private static final int SNAPSHOT_MAGIC = 0x434D444C;
+    private static final int SNAPSHOT_FORMAT = 1;
+
     private final Path connectorPath;
+    private final String packageName;
+    private final String[] classAnnotations;
+    private final ImportScope scope;
+    private final OperationImpl[] operations;
     private final Set<String> processors;
-    private String packageName;
+    private final Set<String> sources;
+    private final Map<ClassProperty, List<String>> properties = new EnumMap<>(ClassProperty.class);
 
     public ConnectorModelIml(@NonNull Path connectorPath) {
-        this.connectorPath = connectorPath;
-        this.processors = new HashSet<>();
+        this(connectorPath, scan(connectorPath, Optional.empty()));
+    }
 
-        parseClass(connectorPath);
+    public ConnectorModelIml(@NonNull Path connectorPath, @NonNull CompilationUnitCache compilationUnits) {
+        this(connectorPath, scan(connectorPath, Optional.of(compilationUnits)));
     }
 
-    private void parseClass(@NonNull Path connectorPath) {
+    private ConnectorModelIml(@NonNull Path connectorPath, @NonNull ModelScanner modelScanner) {
+        this(connectorPath, modelScanner.packageName, modelScanner.classAnnotations, modelScanner.scope,
+                modelScanner.operations.toArray(new OperationImpl[modelScanner.operations.size()]));
+    }
+
+    private ConnectorModelIml(@NonNull Path connectorPath, @NonNull String packageName, @NonNull String[] classAnnotations, @NonNull ImportScope scope,
+                              @NonNull OperationImpl[] operations) {
+        this.connectorPath = connectorPath;
+        this.packageName = packageName;
+        this.classAnnotations = classAnnotations;
+        this.scope = scope;
+        this.operations = operations;
+        this.processors = names(Context.Operation.Kind.PROCESSOR);
+        this.sources = names(Context.Operation.Kind.SOURCE);
 
-        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        final StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        // Template properties are asked for every structure rule, compute them once ...
+        for (ClassProperty property : ClassProperty.values()) {
+            properties.put(property, Collections.unmodifiableList(new ArrayList<>(property.values(this))));
+        }
+    }
 
-        final Iterable<? extends JavaFileObject> compilationUnit = fileManager.getJavaFileObjectsFromFiles(Collections.singletonList(connectorPath.toFile()));
+    @NonNull
+    private static ModelScanner scan(@NonNull Path connectorPath, @NonNull Optional<CompilationUnitCache> compilationUnits) {
+        final ModelScanner modelScanner = new ModelScanner(connectorPath);
+        if (compilationUnits.isPresent()) {
+            modelScanner.parseClass(compilationUnits.get());
+        } else {
+            try (final CompilationUnitCache cache = new CompilationUnitCache()) {
+                modelScanner.parseClass(cache);
+            }
+        }
+        return modelScanner;
+    }
 
-        // Create the compilation task
-        final JavacTask task = (JavacTask) compiler.getTask(null, fileManager, null, null, null, compilationUnit);
+    /**
+     * Model of the module connector class. It is read from the snapshot in 'target/.certcache' if the snapshot was taken from the same source
+     * content by the same validator code, otherwise the source is parsed and a new snapshot is stored.
+     */
+    @NonNull
+    public static ConnectorModelIml load(@NonNull Path basePath, @NonNull Path connectorPath, @NonNull CompilationUnitCache compilationUnits) {
+        return load(basePath, connectorPath, compilationUnits, ResultCache.validatorFingerprint());
+    }
 
+    /**
+     * Same as {@link #load(Path, Path, CompilationUnitCache)} for the validator identified by the fingerprint. Snapshots are neither read nor
+     * stored without it.
+     */
+    @NonNull
+    public static ConnectorModelIml load(@NonNull Path basePath, @NonNull Path connectorPath, @NonNull CompilationUnitCache compilationUnits,
+                                         @NonNull Optional<String> fingerprint) {
+        if (!fingerprint.isPresent()) {
+            return new ConnectorModelIml(connectorPath, compilationUnits);
+        }
+
+        final Path snapshotFile = basePath.resolve(ResultCache.CACHE_DIR).resolve(SNAPSHOT_FILE);
+        final String key;
         try {
-            final Iterable<? extends CompilationUnitTree> asts = task.parse();
-            final Trees trees = Trees.instance(task);
+            key = basePath.relativize(connectorPath).toString() + "|" + ResultCache.hash(Files.readAllBytes(connectorPath)) + "|" + fingerprint.get();
+        } catch (IOException e) {
+            throw new DevKitSonarRuntimeException("Connector class could not be read. File name " + connectorPath, e);
+        }
+
+        final Optional<ConnectorModelIml> snapshot = readSnapshot(snapshotFile, connectorPath, key);
+        if (snapshot.isPresent()) {
+            logger.debug("Reusing connector model snapshot -> '{}'", snapshotFile);
+            return snapshot.get();
+        }
+
+        final ConnectorModelIml result = new ConnectorModelIml(connectorPath, compilationUnits);
+        if (Files.isDirectory(basePath.resolve("target"))) {
+            result.writeSnapshot(snapshotFile, key);
+        }
+        return result;
+    }
+
+    @NonNull
+    private static Optional<ConnectorModelIml> readSnapshot(@NonNull final Path snapshotFile, @NonNull final Path connectorPath, @NonNull final String key) {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return Optional.empty();
+        }
+
+        try (final FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != SNAPSHOT_MAGIC || buffer.getInt() != SNAPSHOT_FORMAT || !key.equals(readString(buffer))) {
+                return Optional.empty();
+            }
+
+            final String packageName = readString(buffer);
+            final String[] classAnnotations = readStrings(buffer);
+            final ImportScope scope = ImportScope.of(Arrays.asList(readStrings(buffer)), Arrays.asList(readStrings(buffer)));
 
-            final ModelScanner modelScanner = new ModelScanner();
-            modelScanner.scan(asts.iterator().next(), trees);
+            final OperationImpl[] operations = new OperationImpl[buffer.getInt()];
+            for (int i = 0; i < operations.length; i++) {
+                final String name = readString(buffer);
+                final Context.Operation.Kind kind = Context.Operation.Kind.values()[buffer.get()];
+                final String[] annotations = readStrings(buffer);
+                final String[] exceptions = readStrings(buffer);
 
+                final ParameterImpl[] parameters = new ParameterImpl[buffer.getInt()];
+                for (int j = 0; j < parameters.length; j++) {
+                    parameters[j] = new ParameterImpl(readString(buffer), readString(buffer), readStrings(buffer), scope);
+                }
+                operations[i] = new OperationImpl(name, kind, annotations, parameters, exceptions);
+            }
+            return Optional.of(new ConnectorModelIml(connectorPath, packageName, classAnnotations, scope, operations));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Connector model snapshot could not be read. It will be rebuilt -> '{}'", snapshotFile);
+            return Optional.empty();
+        }
+    }
+
+    private void writeSnapshot(@NonNull final Path snapshotFile, @NonNull final String key) {
+        try {
+            Files.createDirectories(snapshotFile.getParent());
+            final Path temp = Files.createTempFile(snapshotFile.getParent(), SNAPSHOT_FILE, ".tmp");
+            try {
+                writeModel(temp, key);
+                Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // Partial snapshots are not left in the cache directory ...
+                Files.deleteIfExists(temp);
+                throw e;
+            }
         } catch (IOException e) {
-            throw new DevKitSonarRuntimeException("Connector class can not be parsed. Class file name " + connectorPath, e);
+            logger.warn("Connector model snapshot could not be written -> '{}'", snapshotFile);
+        }
+    }
+
+    private void writeModel(@NonNull final Path file, @NonNull final String key) throws IOException {
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_FORMAT);
+            writeString(out, key);
+            writeString(out, packageName);
+            writeStrings(out, classAnnotations);
+            writeStrings(out, scope.getSingleImports().toArray(NONE));
+            writeStrings(out, scope.getWildcardImports().toArray(NONE));
+
+            out.writeInt(operations.length);
+            for (OperationImpl operation : operations) {
+                writeString(out, operation.name);
+                out.writeByte(operation.kind.ordinal());
+                writeStrings(out, operation.annotations);
+                writeStrings(out, operation.exceptions);
+
+                out.writeInt(operation.parameters.length);
+                for (ParameterImpl parameter : operation.parameters) {
+                    writeString(out, parameter.name);
+                    writeString(out, parameter.type);
+                    writeStrings(out, parameter.annotations);
+                }
+            }
         }
     }
 
+    @NonNull
+    private static String readString(@NonNull final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @NonNull
+    private static String[] readStrings(@NonNull final ByteBuffer buffer) {
+        final int count = buffer.getInt();
+        if (count == 0) {
+            return NONE;
+        }
+
+        final String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = readString(buffer);
+        }
+        return result;
+    }
+
+    private static void writeString(@NonNull final DataOutputStream out, @NonNull final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeStrings(@NonNull final DataOutputStream out, @NonNull final String[] values) throws IOException {
+        out.writeInt(values.length);
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    @NonNull
+    private Set<String> names(final Context.Operation.@NonNull Kind kind) {
+        return Collections.unmodifiableSet(Arrays.stream(operations).filter(operation -> operation.kind == kind).map(OperationImpl::getName).collect(Collectors.toSet()));
+    }
+
     @Override
     public Set<String> getProcessors() {
         return processors;
@@ -60,12 +252,12 @@ public class ConnectorModelIml implements Context.ConnectorModel {
 
     @Override
     public Set<String> getSources() {
-        throw new UnsupportedOperationException();
+        return sources;
     }
 
     @Override
     public List<String> getProperty(@NonNull final ClassProperty property) {
-        return new ArrayList<>(property.values(this));
+        return properties.get(property);
     }
 
     @Override
@@ -74,13 +266,42 @@ public class ConnectorModelIml implements Context.ConnectorModel {
         return packageName;
     }
 
-    private class ModelScanner extends TreePathScanner<Object, Trees> {
+    @NonNull
+    @Override
+    public List<String> getClassAnnotations() {
+        return Collections.unmodifiableList(Arrays.asList(classAnnotations));
+    }
+
+    @NonNull
+    @Override
+    public List<Context.Operation> getOperations() {
+        return Collections.unmodifiableList(Arrays.asList(operations));
+    }
+
+    private static class ModelScanner extends TreePathScanner<Object, Trees> {
 
+        private final Path connectorPath;
         boolean mainClassParsed;
+        private String packageName;
+        private String[] classAnnotations = NONE;
+        private ImportScope scope;
+        private final List<OperationImpl> operations = new ArrayList<>();
+
+        ModelScanner(@NonNull final Path connectorPath) {
+            this.connectorPath = connectorPath;
+        }
+
+        private void parseClass(@NonNull CompilationUnitCache compilationUnits) {
+            final CompilationUnitCache.ParsedUnit unit = compilationUnits.parse(connectorPath);
+            scan(unit.getCompilationUnit(), unit.getTrees());
+        }
 
         @Override
         public Object visitCompilationUnit(CompilationUnitTree node, Trees trees) {
-            ConnectorModelIml.this.packageName = node.getPackageName().toString();
+            this.packageName = node.getPackageName().toString();
+
+            // Scope only holds import names, the tree is not retained ...
+            this.scope = ImportScope.of(node.getImports());
             return super.visitCompilationUnit(node, trees);
         }
 
@@ -89,7 +310,9 @@ public class ConnectorModelIml implements Context.ConnectorModel {
 
             final List<? extends AnnotationTree> annotations = method.getModifiers().getAnnotations();
             if (annotations.stream().anyMatch(ClassParserUtils::isProcessorAnnotation)) {
-                ConnectorModelIml.this.addProcessor(method.getName().toString());
+                operations.add(toOperation(method, Context.Operation.Kind.PROCESSOR));
+            } else if (ClassParserUtils.contains(annotations, Source.class)) {
+                operations.add(toOperation(method, Context.Operation.Kind.SOURCE));
             }
 
             return super.visitMethod(method, trees);
@@ -101,9 +324,10 @@ public class ConnectorModelIml implements Context.ConnectorModel {
             if (!mainClassParsed) {
                 final List<? extends AnnotationTree> annotations = node.getModifiers().getAnnotations();
                 if (!annotations.stream().anyMatch(ClassParserUtils::isConnectorAnnotation)) {
-                    throw new DevKitSonarRuntimeException("Class is not marked with @Connector. File:" + ConnectorModelIml.this.connectorPath);
+                    throw new DevKitSonarRuntimeException("Class is not marked with @Connector. File:" + connectorPath);
                 }
                 mainClassParsed = true;
+                classAnnotations = annotationNames(annotations);
                 result = super.visitClass(node, trees);
             } else {
                 result = null;
@@ -111,9 +335,119 @@ public class ConnectorModelIml implements Context.ConnectorModel {
             return result;
 
         }
+
+        @NonNull
+        private OperationImpl toOperation(@NonNull final MethodTree method, final Context.Operation.@NonNull Kind kind) {
+            final List<? extends VariableTree> parameters = method.getParameters();
+            final ParameterImpl[] result = new ParameterImpl[parameters.size()];
+            for (int i = 0; i < result.length; i++) {
+                final VariableTree parameter = parameters.get(i);
+                result[i] = new ParameterImpl(parameter.getName().toString(), parameter.getType().toString(), annotationNames(parameter.getModifiers().getAnnotations()), scope);
+            }
+
+            final String[] exceptions = method.getThrows().stream().map(Object::toString).toArray(String[]::new);
+            return new OperationImpl(method.getName().toString(), kind, annotationNames(method.getModifiers().getAnnotations()), result, exceptions);
+        }
+    }
+
+    @NonNull
+    private static String[] annotationNames(@NonNull final List<? extends AnnotationTree> annotations) {
+        return annotations.isEmpty() ? NONE : annotations.stream().map(annotation -> annotation.getAnnotationType().toString()).toArray(String[]::new);
     }
 
-    private void addProcessor(@NonNull final String methodName) {
-        this.processors.add(methodName);
+    private static class OperationImpl implements Context.Operation {
+
+        private final String name;
+        private final Kind kind;
+        private final String[] annotations;
+        private final ParameterImpl[] parameters;
+        private final String[] exceptions;
+
+        OperationImpl(@NonNull String name, @NonNull Kind kind, @NonNull String[] annotations, @NonNull ParameterImpl[] parameters, @NonNull String[] exceptions) {
+            this.name = name;
+            this.kind = kind;
+            this.annotations = annotations;
+            this.parameters = parameters;
+            this.exceptions = exceptions;
+        }
+
+        @NonNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @NonNull
+        @Override
+        public Kind getKind() {
+            return kind;
+        }
+
+        @NonNull
+        @Override
+        public List<String> getAnnotations() {
+            return Collections.unmodifiableList(Arrays.asList(annotations));
+        }
+
+        @NonNull
+        @Override
+        public List<Context.Parameter> getParameters() {
+            return Collections.unmodifiableList(Arrays.asList(parameters));
+        }
+
+        @NonNull
+        @Override
+        public List<String> getExceptions() {
+            return Collections.unmodifiableList(Arrays.asList(exceptions));
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + name;
+        }
+    }
+
+    private static class ParameterImpl implements Context.Parameter {
+
+        private final String name;
+        private final String type;
+        private final String[] annotations;
+        private final Lazy<Optional<ClassInfo>> resolvedType;
+
+        ParameterImpl(@NonNull String name, @NonNull String type, @NonNull String[] annotations, @NonNull ImportScope scope) {
+            this.name = name;
+            this.type = type;
+            this.annotations = annotations;
+            this.resolvedType = Lazy.of(() -> ClassParserUtils.classForName(type, scope));
+        }
+
+        @NonNull
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @NonNull
+        @Override
+        public String getType() {
+            return type;
+        }
+
+        @NonNull
+        @Override
+        public Optional<ClassInfo> getResolvedType() {
+            return resolvedType.get();
+        }
+
+        @NonNull
+        @Override
+        public List<String> getAnnotations() {
+            return Collections.unmodifiableList(Arrays.asList(annotations));
+        }
+
+        @Override
+        public String toString() {
+            return type + " " + name;
+        }
     }
 }
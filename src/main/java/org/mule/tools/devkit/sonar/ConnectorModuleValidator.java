@@ -1,31 +1,33 @@
 package org.mule.tools.devkit.sonar;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.tools.devkit.sonar.cache.ResultCache;
+import org.mule.tools.devkit.sonar.classpath.JarIndex;
+import org.mule.tools.devkit.sonar.exception.DevKitSonarRuntimeException;
+import org.mule.tools.devkit.sonar.rule.RuleDispatchIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.nio.file.FileVisitOption;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Properties;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class ConnectorModuleValidator {
 
     final private static Logger logger = LoggerFactory.getLogger(ConnectorModuleValidator.class);
+    static final String CERTIGNORE_FILE_NAME = ".certignore";
     private Set<Rule> rules;
+    private RuleDispatchIndex dispatchIndex;
     private Properties ignore;
-    private static final Set<String> exclusions = new HashSet<>();
-
-    static {
-        exclusions.add(".");
-        exclusions.add("target");
-    }
+    private boolean incremental;
+    private final List<String> exclusions = new ArrayList<>(PathExclusions.DEFAULT_PATTERNS);
 
     private ConnectorModuleValidator() {
 
@@ -36,41 +38,131 @@ public class ConnectorModuleValidator {
     }
 
     public static @NonNull ConnectorModuleValidator create(@NonNull Properties ignore) throws IOException {
+        return create(ignore, Collections.emptySet());
+    }
+
+    /**
+     * Creates a validator applying only the rules of the given types, e.g. 'pom' or 'structure'.
+     */
+    public static @NonNull ConnectorModuleValidator create(@NonNull Properties ignore, @NonNull Set<String> ruleTypes) throws IOException {
         final ConnectorModuleValidator result = new ConnectorModuleValidator();
-        result.init();
+        result.init(ruleTypes);
         result.setIgnore(ignore);
         return result;
     }
 
-    private void init() throws IOException {
+    private void init(@NonNull Set<String> ruleTypes) throws IOException {
         // Load rules ...
-        this.rules = RulesFactory.load();
+        this.rules = RulesFactory.load(ruleTypes);
+        this.dispatchIndex = RuleDispatchIndex.compile(rules);
     }
 
     @NonNull
     public Set<ValidationError> execute(@NonNull final Path basePath) throws IOException {
+        return execute(basePath, 1);
+    }
 
-        // Init Context ...
-        Context.getInstance(basePath);
+    @NonNull
+    public Set<ValidationError> execute(@NonNull final Path basePath, final int jobs) throws IOException {
+        return execute(basePath, ignore, jobs);
+    }
 
-        // Process rules ...
-        final Stream<Path> filesToProgress = Files.walk(basePath, FileVisitOption.FOLLOW_LINKS).map(path -> basePath.relativize(path))
-                .filter(childPath -> !exclusions.stream().anyMatch(exc -> childPath.toString().startsWith(exc)));
+    @NonNull
+    public Set<ValidationError> execute(@NonNull final Path basePath, @NonNull final Properties ignore, final int jobs) throws IOException {
+
+        // Init Context, it is not evicted while the module is being validated ...
+        final ContextImpl context = ContextImpl.acquire(basePath);
+        try {
+            return doExecute(context, basePath, ignore, jobs);
+        } finally {
+            context.endRun();
+            context.release();
+            JarIndex.saveShared();
+        }
+    }
 
-        final Set<Set<ValidationError>> result = filesToProgress.map(relativePath -> {
-            logger.debug("Processing file -> '{}' '{}'", basePath, relativePath);
+    @NonNull
+    private Set<ValidationError> doExecute(@NonNull final ContextImpl context, @NonNull final Path basePath, @NonNull final Properties ignore, final int jobs) throws IOException {
+
+        // Files to process ...
+        final PathExclusions exclusions = exclusions(ignore);
+        final List<Path> filesToProgress = exclusions.walk(basePath);
+        context.setPathIndex(Optional.of(PathIndex.build(basePath, filesToProgress, exclusions)));
+
+        // Every (file, candidate rule) pair is an independent work item ...
+        final List<Map.Entry<Path, Rule>> workItems = new ArrayList<>();
+        for (Path relativePath : filesToProgress) {
+            dispatchIndex.candidates(relativePath).forEach(rule -> workItems.add(new AbstractMap.SimpleImmutableEntry<>(relativePath, rule)));
+        }
+
+        // Reuse results of previous runs if inputs has not changed ...
+        final Optional<ResultCache> cache = incremental ? Optional.of(ResultCache.load(basePath, rules, filesToProgress)) : Optional.empty();
+
+        final Set<ValidationError> result;
+        if (jobs > 1) {
+            final ForkJoinPool pool = new ForkJoinPool(jobs);
+            try {
+                result = pool.submit(() -> process(basePath, workItems.parallelStream(), cache)).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DevKitSonarRuntimeException(e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new DevKitSonarRuntimeException(e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            result = process(basePath, workItems.stream(), cache);
+        }
+
+        if (cache.isPresent()) {
+            cache.get().save();
+        }
 
-            // Filter rules ...
-                final Stream<Rule> filteredRules = rules.stream().filter(rule -> rule.accepts(basePath, relativePath));
+        // Filter ignored errors ....
+        return result.stream().filter(e -> ignore.get(e.getUUID()) == null).collect(Collectors.toSet());
+    }
 
-                // Apply rules ..
-                return filteredRules.map(rule -> rule.verify(basePath, relativePath)).collect(Collectors.toSet());
-            }).filter(set -> !set.isEmpty()).flatMap(Collection::stream).collect(Collectors.toSet());
+    @NonNull
+    private Set<ValidationError> process(@NonNull final Path basePath, @NonNull final Stream<Map.Entry<Path, Rule>> workItems, @NonNull final Optional<ResultCache> cache) {
+        return workItems.flatMap(item -> {
+            final Path relativePath = item.getKey();
+            final Rule rule = item.getValue();
+            logger.debug("Processing file -> '{}' '{}' '{}'", basePath, relativePath, rule.getDocumentation().getId());
+
+            final Supplier<Set<ValidationError>> verification = () -> apply(rule, basePath, relativePath);
+            final Set<ValidationError> errors = cache.isPresent() ? cache.get().compute(rule, relativePath, verification) : verification.get();
+            return errors.stream();
+        }).collect(Collectors.toSet());
+    }
 
-        final Stream<ValidationError> errors = result.stream().flatMap(Collection::stream);
+    /**
+     * Paths excluded from the validation, the default ones plus the patterns added to the validator and the ones listed in the module '.certignore'.
+     */
+    @NonNull
+    PathExclusions exclusions(@NonNull final Properties ignore) {
+        return PathExclusions.compile(exclusions, ignore);
+    }
 
-        // Filter ignored errors ....
-        return errors.filter(e -> ignore.get(e.getUUID()) == null).collect(Collectors.toSet());
+    public void addExclusions(@NonNull final Collection<String> patterns) {
+        exclusions.addAll(patterns);
+    }
+
+    @NonNull
+    RuleDispatchIndex getDispatchIndex() {
+        return dispatchIndex;
+    }
+
+    @NonNull
+    static Set<ValidationError> apply(@NonNull final Rule rule, @NonNull final Path basePath, @NonNull final Path relativePath) {
+
+        // Apply rule if the file is accepted ...
+        return rule.accepts(basePath, relativePath) ? rule.verify(basePath, relativePath) : Collections.emptySet();
+    }
+
+    @NonNull
+    Properties getIgnore() {
+        return ignore;
     }
 
     @NonNull
@@ -81,4 +173,23 @@ public class ConnectorModuleValidator {
     public void setIgnore(@NonNull Properties ignore) {
         this.ignore = ignore;
     }
+
+    /**
+     * Results are cached in the module target directory and only the files whose rule inputs changed are verified again.
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    @NonNull
+    public static Properties loadIgnore(@NonNull final Path modulePath) throws IOException {
+        final Properties result = new Properties();
+        final Path ignorePath = modulePath.resolve(CERTIGNORE_FILE_NAME);
+        if (Files.exists(ignorePath)) {
+            try (final InputStream is = Files.newInputStream(ignorePath)) {
+                result.load(is);
+            }
+        }
+        return result;
+    }
 }
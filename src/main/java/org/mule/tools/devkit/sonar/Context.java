@@ -1,9 +1,11 @@
 package org.mule.tools.devkit.sonar;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.tools.devkit.sonar.classpath.ClassInfo;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 public interface Context {
@@ -20,6 +22,21 @@ public interface Context {
     @NonNull
     ConnectorModel getConnectorModel();
 
+    @NonNull
+    CompilationUnitCache getCompilationUnits();
+
+    /**
+     * Reads the header of a class from the module class path without loading it. Results, missing classes included, are cached by the context.
+     */
+    @NonNull
+    Optional<ClassInfo> findClass(@NonNull String className);
+
+    /**
+     * Paths found by the walk of the current validation run, if any.
+     */
+    @NonNull
+    Optional<PathIndex> getPathIndex();
+
     interface ConnectorModel {
 
         @NonNull
@@ -33,6 +50,64 @@ public interface Context {
 
         @NonNull
         List<String> getProperty(ClassProperty property);
+
+        /**
+         * Annotation types of the connector class, as written in the source.
+         */
+        @NonNull
+        List<String> getClassAnnotations();
+
+        /**
+         * Processors and sources of the connector class in declaration order.
+         */
+        @NonNull
+        List<Operation> getOperations();
+    }
+
+    interface Operation {
+
+        enum Kind {
+            PROCESSOR, SOURCE
+        }
+
+        @NonNull
+        String getName();
+
+        @NonNull
+        Kind getKind();
+
+        @NonNull
+        List<String> getAnnotations();
+
+        @NonNull
+        List<Parameter> getParameters();
+
+        /**
+         * Exception types of the throws clause, as written in the source.
+         */
+        @NonNull
+        List<String> getExceptions();
+    }
+
+    interface Parameter {
+
+        @NonNull
+        String getName();
+
+        /**
+         * Parameter type as written in the source, generic arguments included.
+         */
+        @NonNull
+        String getType();
+
+        /**
+         * Parameter type resolved through the imports of the connector class and the module class path of the current context. Resolved once.
+         */
+        @NonNull
+        Optional<ClassInfo> getResolvedType();
+
+        @NonNull
+        List<String> getAnnotations();
     }
 
     @NonNull
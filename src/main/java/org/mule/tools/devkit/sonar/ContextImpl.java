@@ -1,6 +1,8 @@
 package org.mule.tools.devkit.sonar;
 
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.tools.devkit.sonar.classpath.ClassIndex;
+import org.mule.tools.devkit.sonar.classpath.ClassInfo;
 import org.mule.tools.devkit.sonar.exception.DevKitSonarRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,82 +10,302 @@ import org.xml.sax.SAXException;
 
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
+import java.io.Closeable;
 import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
-public class ContextImpl implements Context {
+public class ContextImpl implements Context, Closeable {
 
     private static final String DEVKIT_VERSION_XPATH = "/pom:project/pom:parent/pom:version/text()";
     private static final String CONNECTOR_CATEGORY_XPATH = "/pom:project/pom:properties/pom:category/text()";
 
-    private final String devkitVersion;
-    private final String category;
-    private final ConnectorModelIml model;
-    private ClassLoader classLoader;
+    // Components are built on first use, rules only pay for what they need ...
+    private final Lazy<String> devkitVersion;
+    private final Lazy<String> category;
+    private final Lazy<Optional<Path>> connectorPath;
+    private final Lazy<ConnectorModelIml> model;
+    private final Lazy<ClassLoader> classLoader;
+    private final CompilationUnitCache compilationUnits;
+    private final Lazy<ClassIndex> classIndex;
+    private final Map<String, Optional<ClassInfo>> classes = new ConcurrentHashMap<>();
+    private final Path basePath;
+    private volatile Optional<PathIndex> pathIndex = Optional.empty();
+    private volatile PomSession pomSession;
     private final static ThreadLocal<Context> threadLocal = new ThreadLocal<>();
-    private final static Map<Path, Context> instancesByPath = new ConcurrentHashMap<>();
+
+    // Guarded by the instances lock. Contexts dropped while in use are closed by the last release ...
+    private int references;
+    private boolean retired;
+
+    // Least recently used contexts not in use are closed once the limit is reached ...
+    private final static Map<Path, ContextImpl> instancesByPath = new LinkedHashMap<>(16, 0.75f, true);
+    private static int maxInstances = Integer.getInteger("devkit.sonar.contexts.max", 16);
+    private final static AtomicLong createdInstances = new AtomicLong();
+    private final static AtomicLong evictedInstances = new AtomicLong();
     private final static Logger logger = LoggerFactory.getLogger(XmlUtils.class);
 
     public ContextImpl(@NonNull final Path basePath) {
 
+        this.basePath = basePath;
+        this.compilationUnits = new CompilationUnitCache();
+
         // Init class loader ...
-        try {
-            this.classLoader = new ModuleClassLoader(basePath);
-        } catch (IOException | XPathExpressionException | SAXException e) {
-            throw new IllegalStateException(e);
-        }
+        this.classLoader = Lazy.of(() -> {
+            try {
+                return new ModuleClassLoader(basePath);
+            } catch (IOException | XPathExpressionException | SAXException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Class headers are read from the module class path, validator and JDK classes as resources ...
+        this.classIndex = Lazy.of(() -> {
+            final ClassLoader loader = getModuleClassLoader();
+            final URL[] classPath = loader instanceof URLClassLoader ? ((URLClassLoader) loader).getURLs() : new URL[0];
+            return new ClassIndex(classPath, ModuleClassLoader.class.getClassLoader());
+        });
 
         // Init pom properties ...
-        this.devkitVersion = (String) XmlUtils.evalXPathOnPom(basePath, DEVKIT_VERSION_XPATH, XPathConstants.STRING);
-        logger.debug("Parsed devkit version -> {}", devkitVersion);
+        this.devkitVersion = Lazy.of(() -> {
+            final String result = (String) XmlUtils.evalXPathOnPom(basePath, DEVKIT_VERSION_XPATH, XPathConstants.STRING);
+            logger.debug("Parsed devkit version -> {}", result);
+            return result;
+        });
+
+        this.category = Lazy.of(() -> {
+            final String result = (String) XmlUtils.evalXPathOnPom(basePath, CONNECTOR_CATEGORY_XPATH, XPathConstants.STRING);
+            logger.debug("Parsed Category version -> {}", result);
+            return result;
+        });
 
-        this.category = (String) XmlUtils.evalXPathOnPom(basePath, CONNECTOR_CATEGORY_XPATH, XPathConstants.STRING);
-        logger.debug("Parsed Category version -> {}", category);
+        // Source tree is walked once per context ...
+        this.connectorPath = Lazy.of(() -> findConnectorPath(basePath));
+
+        this.model = Lazy.of(() -> {
+            final Optional<Path> connectorPath = this.connectorPath.get();
+            if (!connectorPath.isPresent()) {
+                throw new DevKitSonarRuntimeException("Connector class could not be found. Module path " + basePath.toAbsolutePath());
+            }
+            return ConnectorModelIml.load(basePath, connectorPath.get(), compilationUnits);
+        });
+    }
 
-        try {
-            final Optional<Path> connectorPath = Files.walk(basePath.resolve("src/main/java"), FileVisitOption.FOLLOW_LINKS)
-                    .filter(path -> path.toString().endsWith("Connector.java")).findAny();
-            this.model = new ConnectorModelIml(connectorPath.get());
+    @NonNull
+    public static Optional<Path> findConnectorPath(@NonNull final Path basePath) {
+        try (final Stream<Path> paths = Files.walk(basePath.resolve("src/main/java"), FileVisitOption.FOLLOW_LINKS)) {
+            return paths.filter(path -> path.toString().endsWith("Connector.java")).findFirst();
         } catch (IOException e) {
             throw new DevKitSonarRuntimeException(e);
         }
     }
 
+    /**
+     * Connector class of the module, looked up on first use.
+     */
+    @NonNull
+    public Optional<Path> getConnectorPath() {
+        return connectorPath.get();
+    }
+
     @Override
     public @NonNull String getDevKitVersion() {
-        return this.devkitVersion;
+        return this.devkitVersion.get();
     }
 
     @NonNull
     @Override
     public ClassLoader getModuleClassLoader() {
-        return classLoader;
+        return classLoader.get();
     }
 
     @Override
     public @NonNull ConnectorModel getConnectorModel() {
-        return model;
+        return model.get();
+    }
+
+    @NonNull
+    @Override
+    public Optional<ClassInfo> findClass(@NonNull final String className) {
+        return classes.computeIfAbsent(className, name -> classIndex.get().find(name));
+    }
+
+    @NonNull
+    @Override
+    public CompilationUnitCache getCompilationUnits() {
+        return compilationUnits;
+    }
+
+    @NonNull
+    @Override
+    public Optional<PathIndex> getPathIndex() {
+        return pathIndex;
+    }
+
+    public void setPathIndex(@NonNull Optional<PathIndex> pathIndex) {
+        this.pathIndex = pathIndex;
+    }
+
+    /**
+     * Parsed pom of the module. Whether the pom changed is only checked the first time it is asked for in a run.
+     */
+    @NonNull
+    public PomSession getPomSession() {
+        PomSession result = pomSession;
+        if (result == null) {
+            result = PomSession.of(basePath);
+            this.pomSession = result;
+        }
+        return result;
+    }
+
+    /**
+     * Drops the state only shared within a run: parsed sources, walked paths, class headers and the checked pom. Module files could change
+     * before the next run.
+     */
+    public void endRun() {
+        compilationUnits.close();
+        this.pathIndex = Optional.empty();
+        this.pomSession = null;
+        classes.clear();
     }
 
     @Override
     @NonNull
     public String getCategory() {
-        return category.toUpperCase();
+        return category.get().toUpperCase();
+    }
+
+    /**
+     * Releases the class loader jars, the parsed sources and the parsed pom. Components already handed out must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        compilationUnits.close();
+        PomSession.release(basePath);
+        classIndex.peek().ifPresent(ClassIndex::close);
+
+        final Optional<ClassLoader> loader = classLoader.peek();
+        if (loader.isPresent() && loader.get() instanceof Closeable) {
+            try {
+                ((Closeable) loader.get()).close();
+            } catch (IOException e) {
+                logger.warn("Module class loader could not be closed. Module path {}", basePath, e);
+            }
+        }
     }
 
     @NonNull
     public static Context getInstance(@NonNull Path basePath) {
-        Context context = instancesByPath.get(basePath);
-        if (context == null) {
-            context = new ContextImpl(basePath);
-            instancesByPath.put(basePath, context);
+        return lookup(basePath, false);
+    }
+
+    /**
+     * Context of the module, kept open until it is released even if it is evicted or invalidated meanwhile. Every call must be paired with a
+     * {@link #release()}.
+     */
+    @NonNull
+    public static ContextImpl acquire(@NonNull Path basePath) {
+        return lookup(basePath, true);
+    }
+
+    public void release() {
+        synchronized (instancesByPath) {
+            if (--references > 0 || !retired) {
+                return;
+            }
+        }
+        logger.debug("Closing released module context -> {}", basePath);
+        close();
+    }
+
+    @NonNull
+    private static ContextImpl lookup(@NonNull Path basePath, boolean acquire) {
+        final List<ContextImpl> evicted = new ArrayList<>();
+        final ContextImpl result;
+        synchronized (instancesByPath) {
+            result = instancesByPath.computeIfAbsent(basePath, path -> {
+                createdInstances.incrementAndGet();
+                return new ContextImpl(path);
+            });
+            if (acquire) {
+                result.references++;
+            }
+
+            // Contexts in use are skipped, the limit could be exceeded until they are released ...
+            final Iterator<ContextImpl> eldest = instancesByPath.values().iterator();
+            int size = instancesByPath.size();
+            while (size > maxInstances && eldest.hasNext()) {
+                final ContextImpl context = eldest.next();
+                if (context != result && context.references == 0) {
+                    eldest.remove();
+                    evicted.add(context);
+                    size--;
+                }
+            }
+        }
+
+        evicted.forEach(context -> {
+            logger.debug("Evicting module context -> {}", context.basePath);
+            evictedInstances.incrementAndGet();
+            context.close();
+        });
+        return result;
+    }
+
+    /**
+     * Drops the context of the module. It will be created again from the module files on next use. It is closed right away, or by its last
+     * {@link #release()} if it is in use.
+     */
+    public static void invalidate(@NonNull Path basePath) {
+        final ContextImpl context;
+        synchronized (instancesByPath) {
+            context = instancesByPath.remove(basePath);
+            if (context == null) {
+                return;
+            }
+            context.retired = true;
+            if (context.references > 0) {
+                return;
+            }
+        }
+        context.close();
+    }
+
+    /**
+     * Maximum number of module contexts kept open. Acquired contexts are never evicted, so it could be exceeded while they are in use.
+     */
+    public static void setMaxInstances(int maxInstances) {
+        synchronized (instancesByPath) {
+            ContextImpl.maxInstances = Math.max(1, maxInstances);
+        }
+    }
+
+    public static int getMaxInstances() {
+        synchronized (instancesByPath) {
+            return maxInstances;
+        }
+    }
+
+    public static int getLiveInstances() {
+        synchronized (instancesByPath) {
+            return instancesByPath.size();
         }
-        return context;
+    }
+
+    public static long getCreatedInstances() {
+        return createdInstances.get();
+    }
+
+    public static long getEvictedInstances() {
+        return evictedInstances.get();
     }
 
     public void setup() {
@@ -0,0 +1,588 @@
+package org.mule.tools.devkit.sonar;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.mule.tools.devkit.sonar.cache.ResultCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Effective model of a module pom. Properties and managed versions are inherited through the parent chain, found next to the module or in the
+ * local repository, and placeholders are interpolated. Each pom is read in a single pass and the model is stored in 'target/.certcache' until
+ * anything it was built from changes: the content of the poms looked up, found or not, and the system properties and environment variables used.
+ */
+public class EffectivePom {
+
+    final private static Logger logger = LoggerFactory.getLogger(EffectivePom.class);
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)}");
+    private static final String CACHE_FILE = "pom-model.json";
+    private static final int FORMAT = 2;
+    private static final int MAX_PARENTS = 16;
+
+    // Kinds of cache inputs ...
+    private static final String POM_INPUT = "pom:";
+    private static final String PROPERTY_INPUT = "property:";
+    private static final String ENV_INPUT = "env:";
+    private static final String REPOSITORY_PROPERTY = "maven.repo.local";
+
+    private String groupId;
+    private String artifactId;
+    private String version;
+    private String parentVersion = "";
+    private Map<String, String> properties = new HashMap<>();
+    private Map<String, String> managedVersions = new HashMap<>();
+    private List<Dependency> dependencies = new ArrayList<>();
+
+    public EffectivePom() {
+    }
+
+    /**
+     * Effective model of the module, read from the cache if nothing it was built from has changed.
+     */
+    @NonNull
+    public static EffectivePom of(@NonNull final Path basePath) {
+        final Path cacheFile = basePath.resolve(ResultCache.CACHE_DIR).resolve(CACHE_FILE);
+        final Optional<EffectivePom> cached = readCache(cacheFile);
+        if (cached.isPresent()) {
+            logger.debug("Reusing cached pom model -> '{}'", cacheFile);
+            return cached.get();
+        }
+
+        final Map<String, String> inputs = new LinkedHashMap<>();
+        final EffectivePom result = build(basePath, inputs);
+        if (Files.isDirectory(basePath.resolve("target"))) {
+            writeCache(cacheFile, result, inputs);
+        }
+        return result;
+    }
+
+    /**
+     * Builds the model and records what it was built from in the inputs, see {@link CacheData#getInputs()}.
+     */
+    @NonNull
+    static EffectivePom build(@NonNull final Path basePath, @NonNull final Map<String, String> inputs) {
+        final Path pomXml = basePath.resolve("pom.xml");
+        if (!Files.exists(pomXml)) {
+            throw new IllegalStateException("Project pom.xml could not be found." + basePath.toAbsolutePath().toString());
+        }
+
+        // Module first, then its ancestors ...
+        final List<RawPom> poms = new ArrayList<>();
+        Optional<Path> current = Optional.of(pomXml);
+        while (current.isPresent() && poms.size() <= MAX_PARENTS) {
+            final RawPom pom = RawPom.read(current.get());
+            poms.add(pom);
+            recordPom(inputs, current.get());
+            current = pom.findParent(current.get(), inputs);
+        }
+
+        final RawPom module = poms.get(0);
+        final EffectivePom result = new EffectivePom();
+        result.groupId = module.groupId != null ? module.groupId : module.parentGroupId;
+        result.artifactId = module.artifactId;
+        result.version = module.version != null ? module.version : module.parentVersion;
+        result.parentVersion = module.parentVersion != null ? module.parentVersion : "";
+
+        // Children override what they inherit ...
+        final Map<String, String> rawProperties = new HashMap<>();
+        final Map<String, String> rawManaged = new HashMap<>();
+        for (int i = poms.size() - 1; i >= 0; i--) {
+            rawProperties.putAll(poms.get(i).properties);
+            for (Dependency dependency : poms.get(i).managedDependencies) {
+                rawManaged.put(dependency.getGroupId() + ":" + dependency.getArtifactId(), dependency.getVersion());
+            }
+        }
+        putIfNotNull(rawProperties, "project.groupId", result.groupId);
+        putIfNotNull(rawProperties, "project.artifactId", result.artifactId);
+        putIfNotNull(rawProperties, "project.version", result.version);
+        putIfNotNull(rawProperties, "project.parent.groupId", module.parentGroupId);
+        putIfNotNull(rawProperties, "project.parent.artifactId", module.parentArtifactId);
+        putIfNotNull(rawProperties, "project.parent.version", module.parentVersion);
+        rawProperties.put("project.basedir", basePath.toAbsolutePath().toString());
+        rawProperties.put("basedir", basePath.toAbsolutePath().toString());
+
+        final Interpolator interpolator = new Interpolator(rawProperties, inputs);
+        rawProperties.keySet().forEach(key -> result.properties.put(key, interpolator.resolve(rawProperties.get(key))));
+        rawManaged.forEach((key, value) -> result.managedVersions.put(interpolator.resolve(key), value != null ? interpolator.resolve(value) : null));
+
+        for (Dependency declared : module.dependencies) {
+            final Dependency dependency = new Dependency(interpolator.resolve(declared.getGroupId()), interpolator.resolve(declared.getArtifactId()), null,
+                    declared.getClassifier() != null ? interpolator.resolve(declared.getClassifier()) : null,
+                    declared.getScope() != null ? interpolator.resolve(declared.getScope()) : "compile");
+            dependency.setVersion(declared.getVersion() != null ? interpolator.resolve(declared.getVersion())
+                    : result.managedVersions.get(dependency.getGroupId() + ":" + dependency.getArtifactId()));
+            result.dependencies.add(dependency);
+        }
+        return result;
+    }
+
+    private static void putIfNotNull(@NonNull final Map<String, String> properties, @NonNull final String key, @Nullable final String value) {
+        if (value != null) {
+            properties.put(key, value);
+        }
+    }
+
+    /**
+     * Records the content hash of the pom, or null if there is no such file.
+     */
+    private static void recordPom(@NonNull final Map<String, String> inputs, @NonNull final Path pom) {
+        final Path path = pom.toAbsolutePath().normalize();
+        final String key = POM_INPUT + path;
+        if (!inputs.containsKey(key)) {
+            inputs.put(key, pomHash(path));
+        }
+    }
+
+    @Nullable
+    private static String pomHash(@NonNull final Path pom) {
+        try {
+            return Files.isRegularFile(pom) ? ResultCache.hash(Files.readAllBytes(pom)) : null;
+        } catch (IOException e) {
+            // Always considered modified ...
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    /**
+     * Current value of the recorded input.
+     */
+    @Nullable
+    private static String currentValue(@NonNull final String input) {
+        if (input.startsWith(POM_INPUT)) {
+            return pomHash(new File(input.substring(POM_INPUT.length())).toPath());
+        } else if (input.startsWith(PROPERTY_INPUT)) {
+            return System.getProperty(input.substring(PROPERTY_INPUT.length()));
+        } else if (input.startsWith(ENV_INPUT)) {
+            return System.getenv(input.substring(ENV_INPUT.length()));
+        }
+        throw new IllegalStateException("Unknown pom model input " + input);
+    }
+
+    @NonNull
+    private static Optional<EffectivePom> readCache(@NonNull final Path cacheFile) {
+        if (!Files.exists(cacheFile)) {
+            return Optional.empty();
+        }
+
+        try {
+            final CacheData data = new ObjectMapper().readValue(cacheFile.toFile(), CacheData.class);
+            if (data == null || data.getFormat() != FORMAT || data.getPom() == null || data.getInputs().isEmpty()) {
+                return Optional.empty();
+            }
+
+            // A pom changed, a missing parent was installed or a property used changed. The model must be built again ...
+            for (Map.Entry<String, String> input : data.getInputs().entrySet()) {
+                if (!Objects.equals(input.getValue(), currentValue(input.getKey()))) {
+                    logger.debug("Pom model input changed -> '{}'", input.getKey());
+                    return Optional.empty();
+                }
+            }
+            return Optional.of(data.getPom());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Pom model cache could not be read. It will be rebuilt -> '{}'", cacheFile);
+            return Optional.empty();
+        }
+    }
+
+    private static void writeCache(@NonNull final Path cacheFile, @NonNull final EffectivePom pom, @NonNull final Map<String, String> inputs) {
+        try {
+            final CacheData data = new CacheData();
+            data.setFormat(FORMAT);
+            data.setPom(pom);
+            data.setInputs(inputs);
+
+            Files.createDirectories(cacheFile.getParent());
+            new ObjectMapper().writeValue(cacheFile.toFile(), data);
+        } catch (IOException e) {
+            logger.warn("Pom model cache could not be written -> '{}'", cacheFile);
+        }
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
+    public String getArtifactId() {
+        return artifactId;
+    }
+
+    public void setArtifactId(String artifactId) {
+        this.artifactId = artifactId;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    /**
+     * Version of the parent pom, the DevKit version for connectors. Empty if the module has no parent.
+     */
+    public String getParentVersion() {
+        return parentVersion;
+    }
+
+    public void setParentVersion(String parentVersion) {
+        this.parentVersion = parentVersion;
+    }
+
+    /**
+     * Interpolated properties of the module and its ancestors.
+     */
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    public void setProperties(Map<String, String> properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Versions from the dependency management of the module and its ancestors, by 'groupId:artifactId'.
+     */
+    public Map<String, String> getManagedVersions() {
+        return managedVersions;
+    }
+
+    public void setManagedVersions(Map<String, String> managedVersions) {
+        this.managedVersions = managedVersions;
+    }
+
+    /**
+     * Dependencies declared by the module, in declaration order. Versions are interpolated or taken from the dependency management.
+     */
+    public List<Dependency> getDependencies() {
+        return dependencies;
+    }
+
+    public void setDependencies(List<Dependency> dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * Resolves '${...}' placeholders. Properties are resolved once and cycles are left unresolved.
+     */
+    private static class Interpolator {
+
+        private final Map<String, String> rawProperties;
+        private final Map<String, String> inputs;
+        private final Map<String, String> resolved = new HashMap<>();
+        private final Set<String> resolving = new HashSet<>();
+
+        Interpolator(@NonNull final Map<String, String> rawProperties, @NonNull final Map<String, String> inputs) {
+            this.rawProperties = rawProperties;
+            this.inputs = inputs;
+        }
+
+        @NonNull
+        String resolve(@NonNull final String value) {
+            if (value.indexOf('$') < 0) {
+                return value;
+            }
+
+            final Matcher matcher = PLACEHOLDER.matcher(value);
+            final StringBuffer result = new StringBuffer();
+            while (matcher.find()) {
+                final Optional<String> property = property(matcher.group(1));
+                matcher.appendReplacement(result, Matcher.quoteReplacement(property.orElse(matcher.group())));
+            }
+            matcher.appendTail(result);
+            return result.toString();
+        }
+
+        @NonNull
+        private Optional<String> property(@NonNull final String key) {
+            final String cached = resolved.get(key);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+
+            // System properties win, as in Maven. The model depends on them even if they are not set ...
+            String result = System.getProperty(key);
+            inputs.put(PROPERTY_INPUT + key, result);
+            if (result == null && key.startsWith("env.")) {
+                result = System.getenv(key.substring("env.".length()));
+                inputs.put(ENV_INPUT + key.substring("env.".length()), result);
+            }
+            if (result == null) {
+                final String raw = rawProperties.get(key.startsWith("pom.") ? "project." + key.substring("pom.".length()) : key);
+                if (raw == null || !resolving.add(key)) {
+                    return Optional.empty();
+                }
+                result = resolve(raw);
+                resolving.remove(key);
+            }
+            resolved.put(key, result);
+            return Optional.of(result);
+        }
+    }
+
+    /**
+     * Elements of a single pom read in one pass, nothing is inherited or interpolated.
+     */
+    private static class RawPom {
+
+        private String groupId;
+        private String artifactId;
+        private String version;
+        private String parentGroupId;
+        private String parentArtifactId;
+        private String parentVersion;
+        private String parentRelativePath = "../pom.xml";
+        private final Map<String, String> properties = new HashMap<>();
+        private final List<Dependency> dependencies = new ArrayList<>();
+        private final List<Dependency> managedDependencies = new ArrayList<>();
+
+        @NonNull
+        static RawPom read(@NonNull final Path pomXml) {
+            final RawPom result = new RawPom();
+            final Element project = PomSession.parse(pomXml).getDocumentElement();
+            for (Element element : children(project)) {
+                switch (element.getLocalName()) {
+                    case "groupId":
+                        result.groupId = text(element);
+                        break;
+                    case "artifactId":
+                        result.artifactId = text(element);
+                        break;
+                    case "version":
+                        result.version = text(element);
+                        break;
+                    case "parent":
+                        for (Element child : children(element)) {
+                            switch (child.getLocalName()) {
+                                case "groupId":
+                                    result.parentGroupId = text(child);
+                                    break;
+                                case "artifactId":
+                                    result.parentArtifactId = text(child);
+                                    break;
+                                case "version":
+                                    result.parentVersion = text(child);
+                                    break;
+                                case "relativePath":
+                                    result.parentRelativePath = text(child);
+                                    break;
+                            }
+                        }
+                        break;
+                    case "properties":
+                        children(element).forEach(property -> result.properties.put(property.getLocalName(), text(property)));
+                        break;
+                    case "dependencies":
+                        readDependencies(element, result.dependencies);
+                        break;
+                    case "dependencyManagement":
+                        for (Element child : children(element)) {
+                            if ("dependencies".equals(child.getLocalName())) {
+                                readDependencies(child, result.managedDependencies);
+                            }
+                        }
+                        break;
+                }
+            }
+            return result;
+        }
+
+        private static void readDependencies(@NonNull final Element dependencies, @NonNull final List<Dependency> result) {
+            for (Element element : children(dependencies)) {
+                final Dependency dependency = new Dependency();
+                for (Element child : children(element)) {
+                    switch (child.getLocalName()) {
+                        case "groupId":
+                            dependency.setGroupId(text(child));
+                            break;
+                        case "artifactId":
+                            dependency.setArtifactId(text(child));
+                            break;
+                        case "version":
+                            dependency.setVersion(text(child));
+                            break;
+                        case "classifier":
+                            dependency.setClassifier(text(child));
+                            break;
+                        case "scope":
+                            dependency.setScope(text(child));
+                            break;
+                    }
+                }
+                if (dependency.getGroupId() != null && dependency.getArtifactId() != null) {
+                    result.add(dependency);
+                }
+            }
+        }
+
+        /**
+         * Parent pom, from the relative path if it declares the parent coordinates or else from the local repository. Every pom looked up is
+         * recorded in the inputs, the ones not found too.
+         */
+        @NonNull
+        Optional<Path> findParent(@NonNull final Path pomXml, @NonNull final Map<String, String> inputs) {
+            if (parentGroupId == null || parentArtifactId == null || parentVersion == null) {
+                return Optional.empty();
+            }
+
+            if (!parentRelativePath.isEmpty()) {
+                Path candidate = pomXml.toAbsolutePath().getParent().resolve(parentRelativePath).normalize();
+                if (Files.isDirectory(candidate)) {
+                    candidate = candidate.resolve("pom.xml");
+                }
+                recordPom(inputs, candidate);
+                if (Files.isRegularFile(candidate)) {
+                    final RawPom pom = RawPom.read(candidate);
+                    final String candidateGroupId = pom.groupId != null ? pom.groupId : pom.parentGroupId;
+                    if (parentGroupId.equals(candidateGroupId) && parentArtifactId.equals(pom.artifactId)) {
+                        return Optional.of(candidate);
+                    }
+                }
+            }
+
+            final Path repositoryPom = ModuleClassLoader.dependencyToPath(parentGroupId, parentArtifactId, parentVersion, null, "pom");
+            inputs.put(PROPERTY_INPUT + REPOSITORY_PROPERTY, System.getProperty(REPOSITORY_PROPERTY));
+            recordPom(inputs, repositoryPom);
+            if (Files.isRegularFile(repositoryPom)) {
+                return Optional.of(repositoryPom);
+            }
+            logger.debug("Parent pom could not be found, inherited elements are ignored -> {}", repositoryPom);
+            return Optional.empty();
+        }
+
+        @NonNull
+        private static List<Element> children(@NonNull final Element parent) {
+            final List<Element> result = new ArrayList<>();
+            for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+                if (node.getNodeType() == Node.ELEMENT_NODE && node.getLocalName() != null) {
+                    result.add((Element) node);
+                }
+            }
+            return result;
+        }
+
+        @NonNull
+        private static String text(@NonNull final Element element) {
+            return element.getTextContent().trim();
+        }
+    }
+
+    public static class Dependency {
+
+        private String groupId;
+        private String artifactId;
+        private String version;
+        private String classifier;
+        private String scope;
+
+        public Dependency() {
+        }
+
+        Dependency(String groupId, String artifactId, String version, String classifier, String scope) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.classifier = classifier;
+            this.scope = scope;
+        }
+
+        public String getGroupId() {
+            return groupId;
+        }
+
+        public void setGroupId(String groupId) {
+            this.groupId = groupId;
+        }
+
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        public void setArtifactId(String artifactId) {
+            this.artifactId = artifactId;
+        }
+
+        /**
+         * Resolved version, null if neither the dependency nor the dependency management define one.
+         */
+        public String getVersion() {
+            return version;
+        }
+
+        public void setVersion(String version) {
+            this.version = version;
+        }
+
+        public String getClassifier() {
+            return classifier;
+        }
+
+        public void setClassifier(String classifier) {
+            this.classifier = classifier;
+        }
+
+        public String getScope() {
+            return scope;
+        }
+
+        public void setScope(String scope) {
+            this.scope = scope;
+        }
+
+        @Override
+        public String toString() {
+            return groupId + ":" + artifactId + ":" + version;
+        }
+    }
+
+    public static class CacheData {
+
+        private int format;
+        private Map<String, String> inputs = new LinkedHashMap<>();
+        private EffectivePom pom;
+
+        public int getFormat() {
+            return format;
+        }
+
+        public void setFormat(int format) {
+            this.format = format;
+        }
+
+        /**
+         * Everything the model was built from and its value: 'pom:' and the absolute path of every pom looked up with its content hash, null if it
+         * was not found, and 'property:' or 'env:' and the name of every system property or environment variable read.
+         */
+        public Map<String, String> getInputs() {
+            return inputs;
+        }
+
+        public void setInputs(Map<String, String> inputs) {
+            this.inputs = inputs;
+        }
+
+        public EffectivePom getPom() {
+            return pom;
+        }
+
+        public void setPom(EffectivePom pom) {
+            this.pom = pom;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.mule.tools.devkit.sonar;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ImportTree;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.tools.devkit.sonar.classpath.ClassInfo;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Imports of a compilation unit and the classes already resolved through them. Names that could not be resolved are remembered too, so they are
+ * looked up only once per compilation unit.
+ */
+public class ImportScope {
+
+    // Scopes live as long as the compilation unit does ...
+    private static final Map<CompilationUnitTree, ImportScope> scopes = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final List<String> singleImports = new ArrayList<>();
+    private final List<String> wildcardImports = new ArrayList<>();
+    private final Map<String, Optional<ClassInfo>> resolved = new ConcurrentHashMap<>();
+
+    private ImportScope(@NonNull final Collection<? extends ImportTree> imports) {
+        for (ImportTree imp : imports) {
+            if (imp.isStatic()) {
+                continue;
+            }
+
+            final String qualifiedName = imp.getQualifiedIdentifier().toString();
+            if (qualifiedName.endsWith(".*")) {
+                wildcardImports.add(qualifiedName.substring(0, qualifiedName.length() - 1));
+            } else {
+                singleImports.add(qualifiedName);
+            }
+        }
+    }
+
+    private ImportScope(@NonNull final List<String> singleImports, @NonNull final List<String> wildcardImports) {
+        this.singleImports.addAll(singleImports);
+        this.wildcardImports.addAll(wildcardImports);
+    }
+
+    @NonNull
+    public static ImportScope of(@NonNull final CompilationUnitTree compilationUnit) {
+        return scopes.computeIfAbsent(compilationUnit, unit -> new ImportScope(unit.getImports()));
+    }
+
+    /**
+     * Scope over a set of imports that is not shared, resolved classes are only kept by the returned instance.
+     */
+    @NonNull
+    public static ImportScope of(@NonNull final Collection<? extends ImportTree> imports) {
+        return new ImportScope(imports);
+    }
+
+    /**
+     * Scope rebuilt from the names returned by {@link #getSingleImports()} and {@link #getWildcardImports()}.
+     */
+    @NonNull
+    static ImportScope of(@NonNull final List<String> singleImports, @NonNull final List<String> wildcardImports) {
+        return new ImportScope(singleImports, wildcardImports);
+    }
+
+    @NonNull
+    Optional<ClassInfo> resolve(@NonNull final String className, @NonNull final Function<String, Optional<ClassInfo>> resolver) {
+        return resolved.computeIfAbsent(className, resolver);
+    }
+
+    @NonNull
+    Optional<String> findSingleImport(@NonNull final String className) {
+        return singleImports.stream().filter(qualifiedName -> qualifiedName.endsWith("." + className)).findFirst();
+    }
+
+    @NonNull
+    List<String> getSingleImports() {
+        return singleImports;
+    }
+
+    @NonNull
+    List<String> getWildcardImports() {
+        return wildcardImports;
+    }
+}
@@ -0,0 +1,49 @@
+package org.mule.tools.devkit.sonar;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Value computed on first use and memoized afterwards. Concurrent callers wait for the first computation.
+ */
+public final class Lazy<T> implements Supplier<T> {
+
+    private Supplier<T> supplier;
+    private volatile T value;
+
+    private Lazy(@NonNull final Supplier<T> supplier) {
+        this.supplier = supplier;
+    }
+
+    @NonNull
+    public static <T> Lazy<T> of(@NonNull final Supplier<T> supplier) {
+        return new Lazy<>(supplier);
+    }
+
+    /**
+     * The value, only if it has already been computed.
+     */
+    @NonNull
+    public Optional<T> peek() {
+        return Optional.ofNullable(value);
+    }
+
+    @Override
+    @NonNull
+    public T get() {
+        T result = value;
+        if (result == null) {
+            synchronized (this) {
+                result = value;
+                if (result == null) {
+                    result = supplier.get();
+                    value = result;
+                    supplier = null;
+                }
+            }
+        }
+        return result;
+    }
+}
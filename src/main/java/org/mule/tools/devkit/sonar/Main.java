@@ -1,25 +1,105 @@
 package org.mule.tools.devkit.sonar;
 
+import org.checkerframework.checker.nullness.qual.NonNull;
 import org.mule.tools.devkit.sonar.output.ConsoleReport;
 import org.mule.tools.devkit.sonar.output.Report;
+import org.mule.tools.devkit.sonar.output.SummaryReport;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Properties;
-import java.util.Set;
+import java.util.*;
 
 public class Main {
 
-    private static final String CERTIGNORE_FILE_NAME = ".certignore";
+    // One line per execution mode ...
+    private static final String USAGE = "Use:\n"
+            + "  '-v'\n"
+            + "  ['--rules type,...'] ['--exclude pattern']... ['--jobs N'] ['--incremental'] ['--watch'] connector-module-path\n"
+            + "  '--batch' ['--rules type,...'] ['--exclude pattern']... ['--jobs N'] ['--incremental'] (module-path | @modules-file | root-dir)...\n"
+            + "  '--daemon port' ['--rules type,...'] ['--exclude pattern']... ['--jobs N'] ['--incremental']\n"
+            + "  '--remote port' ['--jobs N'] connector-module-path";
 
     static public void main(String argv[]) throws IOException {
 
-        final ConnectorModuleValidator validator = ConnectorModuleValidator.create();
+        // Parse options ...
+        int jobs = 1;
+        boolean batch = false;
+        boolean watch = false;
+        boolean incremental = false;
+        int daemonPort = -1;
+        int remotePort = -1;
+        final List<String> exclusions = new ArrayList<>();
+        final Set<String> ruleTypes = new HashSet<>();
+        final List<String> args = new ArrayList<>();
+        try {
+            for (int i = 0; i < argv.length; i++) {
+                switch (argv[i]) {
+                    case "--jobs": {
+                        jobs = positiveValue(argv, ++i, "--jobs");
+                        break;
+                    }
+                    case "--batch": {
+                        batch = true;
+                        break;
+                    }
+                    case "--watch": {
+                        watch = true;
+                        break;
+                    }
+                    case "--incremental": {
+                        incremental = true;
+                        break;
+                    }
+                    case "--daemon": {
+                        daemonPort = positiveValue(argv, ++i, "--daemon");
+                        break;
+                    }
+                    case "--remote": {
+                        remotePort = positiveValue(argv, ++i, "--remote");
+                        break;
+                    }
+                    case "--exclude": {
+                        exclusions.add(value(argv, ++i, "--exclude"));
+                        break;
+                    }
+                    case "--rules": {
+                        ruleTypes.addAll(Arrays.asList(value(argv, ++i, "--rules").split(",")));
+                        break;
+                    }
+                    default: {
+                        if (argv[i].startsWith("--rules=")) {
+                            ruleTypes.addAll(Arrays.asList(argv[i].substring("--rules=".length()).split(",")));
+                        } else {
+                            args.add(argv[i]);
+                        }
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage() + "\n" + USAGE);
+            return;
+        }
 
-        final String arg = argv.length == 0 ? "-h" : argv[0];
+        // Forward the request to a running daemon, rules are not loaded by the client ...
+        if (remotePort > 0 && (incremental || batch || watch || !ruleTypes.isEmpty() || !exclusions.isEmpty())) {
+            System.out.println("Options '--rules', '--exclude', '--incremental', '--batch' and '--watch' are set when the daemon is started, they can not be used with '--remote'.");
+            return;
+        }
+        if (remotePort > 0 && !args.isEmpty()) {
+            ValidationDaemon.request(remotePort, Paths.get(args.get(0)), jobs, System.out);
+            return;
+        }
+
+        final ConnectorModuleValidator validator = ConnectorModuleValidator.create(new Properties(), ruleTypes);
+        validator.setIncremental(incremental);
+        validator.addExclusions(exclusions);
+        if (daemonPort > 0) {
+            new ValidationDaemon(validator, daemonPort, jobs).run();
+            return;
+        }
+
+        final String arg = args.isEmpty() ? "-h" : args.get(0);
         switch (arg) {
             case "-v": {
                 final Set<Rule.Documentation> docs = validator.rulesDoc();
@@ -28,31 +108,64 @@ public class Main {
                 break;
             }
             case "-h": {
-                System.out.println("Invalid argument arguments. Use ['-v']");
+                System.out.println("Invalid argument arguments.\n" + USAGE);
                 break;
             }
             default: {
 
-                // Load ignore properties ...
-                final Path modulePath = Paths.get(arg);
-                final Path ignorePath = modulePath.resolve(CERTIGNORE_FILE_NAME);
-                if (Files.exists(ignorePath)) {
-                    final InputStream is = Files.newInputStream(ignorePath);
+                if (batch) {
+                    // Execute validator over all the modules ...
+                    final List<Path> modules = BatchValidator.resolveModules(args);
+                    final Map<Path, BatchValidator.ModuleResult> results = new BatchValidator(validator, jobs).execute(modules);
 
-                    final Properties ignoreProps = new Properties();
-                    ignoreProps.load(is);
-                    validator.setIgnore(ignoreProps);
-                }
+                    // Print reports ....
+                    final Report report = new ConsoleReport();
+                    results.forEach((modulePath, result) -> report.process(modulePath, result.getErrors()));
+                    new SummaryReport().process(results);
+                } else if (watch) {
+                    // Validate again on every change until the process is stopped ...
+                    try {
+                        new ModuleWatcher(validator, Paths.get(arg)).run();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                } else {
 
-                // Execute validator ...
-                final Set<ValidationError> errors = validator.execute(modulePath);
+                    // Load ignore properties ...
+                    final Path modulePath = Paths.get(arg);
+                    validator.setIgnore(ConnectorModuleValidator.loadIgnore(modulePath));
 
-                // Print report ....
-                final Report report = new ConsoleReport();
-                report.process(modulePath, errors);
+                    // Execute validator ...
+                    final Set<ValidationError> errors = validator.execute(modulePath, jobs);
+
+                    // Print report ....
+                    final Report report = new ConsoleReport();
+                    report.process(modulePath, errors);
+                }
             }
 
         }
 
     }
+
+    @NonNull
+    private static String value(@NonNull final String argv[], final int i, @NonNull final String option) {
+        if (i >= argv.length) {
+            throw new IllegalArgumentException("Option '" + option + "' requires a value.");
+        }
+        return argv[i];
+    }
+
+    private static int positiveValue(@NonNull final String argv[], final int i, @NonNull final String option) {
+        final String value = value(argv, i, option);
+        try {
+            final int result = Integer.parseInt(value);
+            if (result > 0) {
+                return result;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below ...
+        }
+        throw new IllegalArgumentException("Option '" + option + "' requires a positive number, found '" + value + "'.");
+    }
 }
@@ -3,11 +3,8 @@ package org.mule.tools.devkit.sonar;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 
-import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
 import java.io.File;
 import java.io.IOException;
@@ -17,25 +14,93 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Pattern;
 
+/**
+ * Class loader of a module 'target/classes' directory. Dependencies and platform jars are loaded by {@link SharedClassLoader} layers shared with
+ * the other modules using the same jars.
+ */
 public class ModuleClassLoader extends URLClassLoader {
 
     final private static Logger logger = LoggerFactory.getLogger(ModuleClassLoader.class);
 
+    private final SharedClassLoader dependencies;
+    private boolean closed;
+
     public ModuleClassLoader(final @NonNull Path basePath) throws IOException, XPathExpressionException, SAXException {
-        super(initUrls(basePath), ModuleClassLoader.class.getClassLoader());
+        this(targetUrl(basePath), EffectivePom.of(basePath));
+    }
+
+    private ModuleClassLoader(final @NonNull URL targetUrl, final @NonNull EffectivePom pom) throws IOException {
+        this(targetUrl, SharedClassLoader.acquire(platformUrls(pom), dependencyUrls(pom)));
     }
 
-    private static URL[] initUrls(@NonNull Path basePath) throws IOException, XPathExpressionException, SAXException {
+    private ModuleClassLoader(final @NonNull URL targetUrl, final @NonNull SharedClassLoader dependencies) {
+        super(new URL[]{targetUrl}, dependencies);
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * All the URLs visible from the module, in lookup order: platform jars, dependencies and target directory.
+     */
+    @Override
+    public URL[] getURLs() {
+        final List<URL> result = new ArrayList<>();
+        for (ClassLoader loader = getParent(); loader instanceof SharedClassLoader; loader = loader.getParent()) {
+            result.addAll(0, Arrays.asList(((SharedClassLoader) loader).getURLs()));
+        }
+        result.addAll(Arrays.asList(super.getURLs()));
+        return result.toArray(new URL[result.size()]);
+    }
+
+    /**
+     * Closes the target directory layer, shared layers are closed when the last module using them is.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+
+        try {
+            super.close();
+        } finally {
+            dependencies.release();
+        }
+    }
+
+    /**
+     * Class path of the module in lookup order, as {@link #getURLs()} returns it, without creating the loader or its shared layers.
+     */
+    @NonNull
+    public static List<Path> classPath(@NonNull final Path basePath) {
+        final EffectivePom pom = EffectivePom.of(basePath);
+        final List<Path> result = new ArrayList<>(platformPaths(pom));
+        for (EffectivePom.Dependency dependency : pom.getDependencies()) {
+            if (dependency.getVersion() != null) {
+                result.add(jarPath(dependency));
+            }
+        }
+        result.add(targetPath(basePath));
+        return result;
+    }
+
+    @NonNull
+    private static URL[] dependencyUrls(@NonNull EffectivePom pom) throws IOException {
         final List<URL> result = new ArrayList<>();
 
         // Process dependencies and jar path ...
-        final NodeList dependencies = (NodeList) XmlUtils.evalXPathOnPom(basePath, "/pom:project/pom:dependencies/pom:dependency", XPathConstants.NODESET);
-        for (int i = 0; i < dependencies.getLength(); i++) {
-            final NodeList dependency = dependencies.item(i).getChildNodes();
-            final Path jarPath = dependencyToJarPath(dependency, basePath);
+        for (EffectivePom.Dependency dependency : pom.getDependencies()) {
+            if (dependency.getVersion() == null) {
+                logger.error("Dependency version could not be resolved ->" + dependency);
+                continue;
+            }
+
+            final Path jarPath = jarPath(dependency);
             if (Files.exists(jarPath)) {
                 result.add(jarPath.toUri().toURL());
                 logger.debug("Project module jar {}", jarPath);
@@ -43,6 +108,16 @@ public class ModuleClassLoader extends URLClassLoader {
                 logger.error("Jar could not be found ->" + jarPath.toAbsolutePath());
             }
         }
+        return result.toArray(new URL[result.size()]);
+    }
+
+    @NonNull
+    private static URL targetUrl(@NonNull Path basePath) throws IOException {
+        return targetPath(basePath).toUri().toURL();
+    }
+
+    @NonNull
+    private static Path targetPath(@NonNull Path basePath) {
 
         // Add maven module target dir ...
         final Path targetPath = basePath.resolve("target/classes/");
@@ -50,76 +125,60 @@ public class ModuleClassLoader extends URLClassLoader {
             throw new IllegalStateException("Maven target directory could not be found. Module must be compiled before executing analysis."
                     + targetPath.toAbsolutePath().toString());
         }
-        result.add(targetPath.toUri().toURL());
+        return targetPath;
+    }
+
+    @NonNull
+    private static URL[] platformUrls(@NonNull EffectivePom pom) throws IOException {
+        final List<URL> result = new ArrayList<>();
+        for (Path jarPath : platformPaths(pom)) {
+            result.add(jarPath.toUri().toURL());
+        }
+        return result.toArray(new URL[result.size()]);
+    }
 
-        final String devkitVersion = (String) XmlUtils.evalXPathOnPom(basePath, "/pom:project/pom:parent/pom:version/text()", XPathConstants.STRING);
+    @NonNull
+    private static List<Path> platformPaths(@NonNull EffectivePom pom) {
+        final String devkitVersion = pom.getParentVersion();
 
         // Add DevKit annotations dependency ...
         final Path devkitJar = dependencyToPath("org.mule.tools.devkit", "mule-devkit-annotations", devkitVersion);
-        result.add(devkitJar.toUri().toURL());
 
         // Add Mule Comments ...
         final Path muleCommonJar = dependencyToPath("org.mule.common", "mule-common", devkitVersion);
-        result.add(muleCommonJar.toUri().toURL());
 
         // Add Mule Comments ...
         final Path muleCore = dependencyToPath("org.mule", "mule-core", devkitVersion);
-        result.add(muleCore.toUri().toURL());
 
-        return result.toArray(new URL[result.size()]);
+        return Arrays.asList(devkitJar, muleCommonJar, muleCore);
     }
 
-    private static Path dependencyToJarPath(@NonNull final NodeList dependency, @NonNull Path basePath) {
-
-        String groupId = "", artifactId = "", version = "";
-
-        for (int j = 0; j < dependency.getLength(); j++) {
-            final Node node = dependency.item(j);
-            final String localName = node.getLocalName();
-
-            if (localName != null) {
-                switch (localName) {
-                    case "groupId": {
-                        groupId = node.getTextContent();
-                        break;
-                    }
-                    case "artifactId": {
-                        artifactId = node.getTextContent();
-                        break;
-                    }
-                    case "version": {
-                        // Replace dependency versions with pom properties ...
-                        final String rawVersion = node.getTextContent();
-                        final NodeList propertiesNodes = (NodeList) XmlUtils.evalXPathOnPom(basePath, "/pom:project/pom:properties", XPathConstants.NODESET);
-                        final NodeList childNodes = propertiesNodes.item(0).getChildNodes();
-                        version = rawVersion;
-                        for (int i = 0; i < childNodes.getLength(); i++) {
-                            if (childNodes.item(i).getNodeType() != Node.TEXT_NODE) {
-                                final Node property = childNodes.item(i);
-                                final String propName = property.getNodeName();
-                                final String propValue = property.getTextContent();
-                                version = version.replaceAll(Pattern.quote("${" + propName + "}"), propValue);
-                            }
-                        }
-                        break;
-                    }
-                }
-            }
-        }
-        return dependencyToPath(groupId, artifactId, version);
-
+    @NonNull
+    private static Path jarPath(@NonNull EffectivePom.Dependency dependency) {
+        return dependencyToPath(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion(), dependency.getClassifier(), "jar");
     }
 
     @NonNull
     private static Path dependencyToPath(String groupId, String artifactId, String version) {
+        return dependencyToPath(groupId, artifactId, version, null, "jar");
+    }
+
+    @NonNull
+    static Path dependencyToPath(String groupId, String artifactId, String version, String classifier, String extension) {
         // Create maven default layout path ...
         final Path mvnLocalRepo = findMvnLocalRepo();
         final Path jarFolder = mvnLocalRepo.resolve(groupId.replace(".", File.separator)).resolve(artifactId).resolve(version);
-        return jarFolder.resolve(artifactId + "-" + version + ".jar");
+        return jarFolder.resolve(artifactId + "-" + version + (classifier != null && !classifier.isEmpty() ? "-" + classifier : "") + "." + extension);
     }
 
     @NonNull
     private static Path findMvnLocalRepo() {
+
+        // Same property as Maven ...
+        final String localRepository = System.getProperty("maven.repo.local");
+        if (localRepository != null && !localRepository.isEmpty()) {
+            return Paths.get(localRepository);
+        }
         final String userHome = System.getProperty("user.home");
         return Paths.get(userHome).resolve(".m2/repository");
     }
@@ -0,0 +1,239 @@
+package org.mule.tools.devkit.sonar;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.tools.devkit.sonar.output.ConsoleReport;
+import org.mule.tools.devkit.sonar.output.Report;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Keeps the validator and the module context warm and validates the module again every time its files change. Only the rules accepting a changed path, or
+ * depending on it, are applied again.
+ */
+public class ModuleWatcher implements Closeable {
+
+    final private static Logger logger = LoggerFactory.getLogger(ModuleWatcher.class);
+    private static final long DEBOUNCE_MILLIS = 100;
+    private static final Path IGNORE_PATH = Paths.get(ConnectorModuleValidator.CERTIGNORE_FILE_NAME);
+
+    private final ConnectorModuleValidator validator;
+    private final Path basePath;
+    private final Report report;
+    private final Map<WatchKey, Path> watchedDirs = new HashMap<>();
+
+    // Results of the rules accepting each file ...
+    private final Map<Path, Map<Rule, Set<ValidationError>>> results = new HashMap<>();
+    private Properties ignore;
+    private PathExclusions exclusions;
+    private Optional<Path> connectorPath;
+    private ContextImpl context;
+
+    public ModuleWatcher(@NonNull final ConnectorModuleValidator validator, @NonNull final Path basePath) {
+        this(validator, basePath, new ConsoleReport());
+    }
+
+    public ModuleWatcher(@NonNull final ConnectorModuleValidator validator, @NonNull final Path basePath, @NonNull final Report report) {
+        this.validator = validator;
+        this.basePath = basePath;
+        this.report = report;
+    }
+
+    public void run() throws IOException, InterruptedException {
+        try (final WatchService watchService = basePath.getFileSystem().newWatchService()) {
+            start();
+            register(watchService, basePath);
+
+            while (!Thread.currentThread().isInterrupted()) {
+                final Set<Path> changed = new HashSet<>();
+                boolean layoutChanged = false;
+                boolean ignoreChanged = false;
+
+                // Wait for changes and collect the ones happening in a short period ...
+                WatchKey key = watchService.take();
+                while (key != null) {
+                    final Path dir = watchedDirs.get(key);
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == OVERFLOW || dir == null) {
+                            changed.addAll(exclusions.walk(basePath));
+                            layoutChanged = true;
+                            continue;
+                        }
+
+                        final Path child = dir.resolve((Path) event.context());
+                        final Path relativePath = basePath.relativize(child);
+                        if (relativePath.equals(IGNORE_PATH)) {
+                            ignoreChanged = true;
+                            continue;
+                        }
+                        if (exclusions.isExcluded(relativePath, Files.isDirectory(child))) {
+                            continue;
+                        }
+
+                        changed.add(relativePath);
+                        if (event.kind() != ENTRY_MODIFY) {
+                            layoutChanged = true;
+                            if (event.kind() == ENTRY_CREATE && Files.isDirectory(child)) {
+                                changed.addAll(register(watchService, child));
+                            }
+                        }
+                    }
+                    if (!key.reset()) {
+                        watchedDirs.remove(key);
+                    }
+                    key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+
+                if (ignoreChanged) {
+                    changed.addAll(reloadIgnore());
+                    layoutChanged = true;
+                }
+                if (!changed.isEmpty()) {
+                    onChange(changed, layoutChanged);
+                }
+            }
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Loads the module ignore file and validates the whole module.
+     */
+    public void start() throws IOException {
+        this.ignore = ConnectorModuleValidator.loadIgnore(basePath);
+        this.exclusions = validator.exclusions(ignore);
+        acquireContext();
+
+        // First full validation ...
+        final List<Path> files = exclusions.walk(basePath);
+        context.setPathIndex(Optional.of(PathIndex.build(basePath, files, exclusions)));
+        validate(new HashSet<>(files));
+    }
+
+    /**
+     * Validates again the changed files and the ones whose rules depend on them. Paths are relative to the module, layout changes are files created or
+     * deleted.
+     */
+    public void onChange(@NonNull final Set<Path> changed, boolean layoutChanged) throws IOException {
+        logger.debug("Changed files -> {}", changed);
+
+        // Invalidate module state only if the pom or the connector class changed, or the connector class was created or deleted ...
+        final Path pomPath = Paths.get("pom.xml");
+        final boolean connectorChanged = connectorPath.isPresent() && changed.contains(connectorPath.get());
+        final boolean connectorMoved = layoutChanged && !ContextImpl.findConnectorPath(basePath).map(path -> basePath.relativize(path)).equals(connectorPath);
+        if (changed.contains(pomPath) || connectorChanged || connectorMoved) {
+            ContextImpl.invalidate(basePath);
+            context.release();
+            acquireContext();
+        } else {
+            // Parsed sources of changed files are stale ...
+            changed.forEach(path -> context.getCompilationUnits().evict(basePath.resolve(path)));
+        }
+
+        // Existence checks must see created and deleted files ...
+        if (layoutChanged || !context.getPathIndex().isPresent()) {
+            final List<Path> files = exclusions.walk(basePath);
+            context.setPathIndex(Optional.of(PathIndex.build(basePath, files, exclusions)));
+
+            // Files under deleted or moved directories are not reported one by one, their results are dropped here ...
+            final Set<Path> walked = new HashSet<>(files);
+            results.keySet().removeIf(file -> !walked.contains(file));
+        }
+
+        // Rules already accepting a file must be applied again if any of its inputs changed ...
+        final Set<Path> changedInputs = new HashSet<>(changed);
+        if (layoutChanged) {
+            changedInputs.add(Rule.MODULE_LAYOUT);
+        }
+
+        final Set<Path> toValidate = new HashSet<>(changed);
+        results.forEach((file, byRule) -> {
+            if (byRule.keySet().stream().anyMatch(rule -> !Collections.disjoint(rule.inputs(basePath, file), changedInputs))) {
+                toValidate.add(file);
+            }
+        });
+
+        validate(toValidate);
+    }
+
+    /**
+     * Releases the module context.
+     */
+    @Override
+    public void close() {
+        if (context != null) {
+            context.release();
+            this.context = null;
+        }
+    }
+
+    private void acquireContext() {
+        this.context = ContextImpl.acquire(basePath);
+        this.connectorPath = context.getConnectorPath().map(path -> basePath.relativize(path));
+    }
+
+    @NonNull
+    private Set<Path> reloadIgnore() throws IOException {
+        logger.debug("Ignore file changed");
+
+        // Excluded paths could have changed, the whole module is validated again ...
+        this.ignore = ConnectorModuleValidator.loadIgnore(basePath);
+        this.exclusions = validator.exclusions(ignore);
+        final Set<Path> files = new HashSet<>(exclusions.walk(basePath));
+        results.keySet().removeIf(file -> !files.contains(file));
+        return files;
+    }
+
+    private void validate(@NonNull final Set<Path> files) {
+        for (Path relativePath : files) {
+            final Map<Rule, Set<ValidationError>> byRule = new HashMap<>();
+
+            if (Files.exists(basePath.resolve(relativePath))) {
+                for (Rule rule : validator.getDispatchIndex().candidates(relativePath)) {
+                    try {
+                        if (rule.accepts(basePath, relativePath)) {
+                            byRule.put(rule, rule.verify(basePath, relativePath));
+                        }
+                    } catch (RuntimeException e) {
+                        // Files could be in the middle of being edited ...
+                        logger.warn("Rule '{}' could not be applied to '{}'", rule.getDocumentation().getId(), relativePath);
+                    }
+                }
+            }
+
+            if (byRule.isEmpty()) {
+                results.remove(relativePath);
+            } else {
+                results.put(relativePath, byRule);
+            }
+        }
+        logger.debug("Validated {} files", files.size());
+
+        // Print report ....
+        final Set<ValidationError> errors = results.values().stream().flatMap(byRule -> byRule.values().stream()).flatMap(Collection::stream)
+                .filter(e -> ignore.get(e.getUUID()) == null).collect(Collectors.toSet());
+        report.process(basePath, errors);
+    }
+
+    @NonNull
+    private Set<Path> register(@NonNull final WatchService watchService, @NonNull final Path root) throws IOException {
+        final Set<Path> result = new HashSet<>();
+        for (Path relativePath : exclusions.walk(basePath, root)) {
+            final Path path = basePath.resolve(relativePath);
+            if (Files.isDirectory(path)) {
+                watchedDirs.put(path.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), path);
+            }
+            result.add(relativePath);
+        }
+        return result;
+    }
+}
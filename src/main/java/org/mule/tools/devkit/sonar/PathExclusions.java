@@ -0,0 +1,168 @@
+package org.mule.tools.devkit.sonar;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Module paths that must not be validated, described by gitignore like patterns:
+ * <ul>
+ * <li>'*' and '?' match within a path segment, '**' matches across segments</li>
+ * <li>a pattern ending with '/' only matches directories</li>
+ * <li>a pattern containing '/' is relative to the module root, otherwise it matches at any depth</li>
+ * </ul>
+ * Negated patterns are not supported. All patterns are compiled into a single expression. Default patterns are anchored to the module root, as the
+ * former prefix filter was, so nested hidden or 'target' paths are still validated.
+ */
+public class PathExclusions {
+
+    final private static Logger logger = LoggerFactory.getLogger(PathExclusions.class);
+
+    public static final List<String> DEFAULT_PATTERNS = Collections.unmodifiableList(Arrays.asList("/.*", "/target", "/node_modules/"));
+
+    /**
+     * '.certignore' property holding comma separated patterns.
+     */
+    public static final String IGNORE_PROPERTY = "paths.exclude";
+
+    private final Pattern directoryPattern;
+    private final Pattern filePattern;
+
+    private PathExclusions(@NonNull final Pattern directoryPattern, @NonNull final Pattern filePattern) {
+        this.directoryPattern = directoryPattern;
+        this.filePattern = filePattern;
+    }
+
+    @NonNull
+    public static PathExclusions compile(@NonNull final Collection<String> patterns) {
+        final List<String> directoryExps = new ArrayList<>();
+        final List<String> fileExps = new ArrayList<>();
+
+        for (String pattern : patterns) {
+            String glob = pattern.trim();
+            if (glob.isEmpty() || glob.startsWith("#")) {
+                continue;
+            }
+
+            final boolean directoryOnly = glob.endsWith("/");
+            if (directoryOnly) {
+                glob = glob.substring(0, glob.length() - 1);
+            }
+
+            // Patterns without separator are matched against any segment ...
+            final boolean anchored = glob.contains("/");
+            if (glob.startsWith("/")) {
+                glob = glob.substring(1);
+            }
+
+            final String exp = (anchored ? "" : "(?:.*/)?") + toRegex(glob);
+            directoryExps.add(exp);
+            if (!directoryOnly) {
+                fileExps.add(exp);
+            }
+        }
+        return new PathExclusions(join(directoryExps), join(fileExps));
+    }
+
+    @NonNull
+    public static PathExclusions compile(@NonNull final Collection<String> patterns, @NonNull final Properties ignore) {
+        final List<String> result = new ArrayList<>(patterns);
+        final String modulePatterns = ignore.getProperty(IGNORE_PROPERTY);
+        if (modulePatterns != null) {
+            result.addAll(Arrays.asList(modulePatterns.split(",")));
+        }
+        return compile(result);
+    }
+
+    public boolean isExcluded(@NonNull final Path relativePath, boolean directory) {
+        final String path = relativePath.toString().replace(File.separatorChar, '/');
+        return !path.isEmpty() && (directory ? directoryPattern : filePattern).matcher(path).matches();
+    }
+
+    /**
+     * Lists the module directories and files, module path included, relative to the module path. Excluded directories are not visited.
+     */
+    @NonNull
+    public List<Path> walk(@NonNull final Path basePath) throws IOException {
+        return walk(basePath, basePath);
+    }
+
+    /**
+     * Lists the directories and files under the start directory, start directory included, relative to the module path.
+     */
+    @NonNull
+    public List<Path> walk(@NonNull final Path basePath, @NonNull final Path start) throws IOException {
+        final List<Path> result = new ArrayList<>();
+        Files.walkFileTree(start, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                final Path relativePath = basePath.relativize(dir);
+                if (isExcluded(relativePath, true)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                result.add(relativePath);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                final Path relativePath = basePath.relativize(file);
+                if (!isExcluded(relativePath, attrs.isDirectory())) {
+                    result.add(relativePath);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
+                if (file.equals(start)) {
+                    throw exc;
+                }
+
+                // Broken links and link cycles are not part of the module ...
+                logger.debug("File could not be visited -> '{}'", file, exc);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return result;
+    }
+
+    @NonNull
+    private static String toRegex(@NonNull final String glob) {
+        final StringBuilder result = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            final char c = glob.charAt(i);
+            if (glob.startsWith("**/", i)) {
+                result.append("(?:.*/)?");
+                i += 2;
+            } else if (glob.startsWith("**", i)) {
+                result.append(".*");
+                i++;
+            } else if (c == '*') {
+                result.append("[^/]*");
+            } else if (c == '?') {
+                result.append("[^/]");
+            } else {
+                if ("\\.[]{}()+-^$|".indexOf(c) != -1) {
+                    result.append('\\');
+                }
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    @NonNull
+    private static Pattern join(@NonNull final List<String> exps) {
+        return exps.isEmpty() ? Pattern.compile("(?!)") : Pattern.compile(exps.stream().map(exp -> "(?:" + exp + ")").collect(Collectors.joining("|")));
+    }
+}
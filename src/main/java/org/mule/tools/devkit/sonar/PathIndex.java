@@ -0,0 +1,128 @@
+package org.mule.tools.devkit.sonar;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Snapshot of the module paths found by the walk, stored as a trie of shared path segments. Existence checks are answered without touching the
+ * file system, except for paths the walk did not visit because they were excluded. On case insensitive file systems, e.g. the macOS and Windows
+ * defaults, segments are compared ignoring case as {@link Files#exists} would.
+ */
+public class PathIndex {
+
+    private final Node root = new Node();
+    private final PathExclusions exclusions;
+    private final boolean ignoreCase;
+
+    private PathIndex(@NonNull final PathExclusions exclusions, boolean ignoreCase) {
+        this.exclusions = exclusions;
+        this.ignoreCase = ignoreCase;
+    }
+
+    @NonNull
+    public static PathIndex build(@NonNull final Path basePath, @NonNull final Collection<Path> relativePaths, @NonNull final PathExclusions exclusions) {
+        final PathIndex result = new PathIndex(exclusions, isCaseInsensitive(basePath, relativePaths));
+
+        // Segment names are repeated all over the tree, keep a single copy of each one ...
+        final Map<String, String> segments = new HashMap<>();
+        for (Path relativePath : relativePaths) {
+            if (relativePath.toString().isEmpty()) {
+                continue;
+            }
+
+            Node node = result.root;
+            for (Path segment : relativePath) {
+                final String name = segments.computeIfAbsent(result.key(segment), key -> key);
+                node = node.child(name);
+            }
+        }
+        return result;
+    }
+
+    public boolean exists(@NonNull final Path basePath, @NonNull final Path relativePath) {
+        final Path path = relativePath.normalize();
+        if (path.toString().isEmpty()) {
+            return true;
+        }
+
+        if (!isIndexed(path)) {
+            return Files.exists(basePath.resolve(relativePath));
+        }
+
+        Node node = root;
+        for (Path segment : path) {
+            node = node.children.get(key(segment));
+            if (node == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * False if {@link #exists(Path, Path)} looks the path up on the file system, i.e. it is outside the module or under an excluded path.
+     */
+    public boolean isIndexed(@NonNull final Path relativePath) {
+        final Path path = relativePath.normalize();
+        return path.toString().isEmpty() || !path.isAbsolute() && !path.startsWith("..") && isWalked(path);
+    }
+
+    @NonNull
+    private String key(@NonNull final Path segment) {
+        return ignoreCase ? segment.toString().toLowerCase(Locale.ROOT) : segment.toString();
+    }
+
+    // The first walked path with letters is looked up with its case swapped ...
+    private static boolean isCaseInsensitive(@NonNull final Path basePath, @NonNull final Collection<Path> relativePaths) {
+        for (Path relativePath : relativePaths) {
+            final String name = relativePath.toString();
+            final String swapped = swapCase(name);
+            if (!swapped.equals(name)) {
+                try {
+                    final Path path = basePath.resolve(swapped);
+                    return Files.exists(path) && Files.isSameFile(path, basePath.resolve(relativePath));
+                } catch (IOException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    @NonNull
+    private static String swapCase(@NonNull final String name) {
+        final StringBuilder result = new StringBuilder(name.length());
+        for (char c : name.toCharArray()) {
+            result.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+        }
+        return result.toString();
+    }
+
+    private boolean isWalked(@NonNull final Path path) {
+
+        // Excluded directories were pruned, nothing is known about their content ...
+        for (int i = 1; i <= path.getNameCount(); i++) {
+            if (exclusions.isExcluded(path.subpath(0, i), true)) {
+                return false;
+            }
+        }
+        return !exclusions.isExcluded(path, false);
+    }
+
+    private static class Node {
+
+        private Map<String, Node> children = Collections.emptyMap();
+
+        @NonNull
+        Node child(@NonNull final String name) {
+            if (children.isEmpty()) {
+                children = new HashMap<>(4);
+            }
+            return children.computeIfAbsent(name, key -> new Node());
+        }
+    }
+}
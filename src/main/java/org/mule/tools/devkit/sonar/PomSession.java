@@ -0,0 +1,134 @@
+package org.mule.tools.devkit.sonar;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.tools.devkit.sonar.exception.DevKitSonarRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsed pom.xml of a module. The document is parsed once and XPath expressions are compiled once per expression string.
+ */
+public class PomSession {
+
+    final private static Logger logger = LoggerFactory.getLogger(PomSession.class);
+
+    // Neither XPathFactory nor DocumentBuilder are thread safe. Keep one per thread ...
+    private final static ThreadLocal<XPathFactory> xpathFactory = ThreadLocal.withInitial(XPathFactory::newInstance);
+    private final static ThreadLocal<DocumentBuilder> builder = ThreadLocal.withInitial(() -> {
+        final DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+        domFactory.setNamespaceAware(true);
+        try {
+            return domFactory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            logger.error(e.getMessage(), e);
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final static Map<Path, PomSession> sessions = new ConcurrentHashMap<>();
+
+    private final Path basePath;
+    private final FileTime stamp;
+    private final Document document;
+    private final Map<String, XPathExpression> expressions = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> predicates = new ConcurrentHashMap<>();
+
+    private PomSession(@NonNull final Path basePath, @NonNull final Path pomXml, @NonNull final FileTime stamp) {
+        this.basePath = basePath;
+        this.stamp = stamp;
+
+        this.document = parse(pomXml);
+    }
+
+    @NonNull
+    static Document parse(@NonNull final Path pomXml) {
+        logger.debug("Parsing pom -> '{}'", pomXml);
+        try (final InputStream is = Files.newInputStream(pomXml)) {
+            return builder.get().parse(is);
+        } catch (Exception e) {
+            throw new IllegalStateException("Pom could not parsed ->" + pomXml.toAbsolutePath().toString(), e);
+        }
+    }
+
+    /**
+     * Parsed pom of the module, parsed again if it changed. Rules get it from the module context, which checks it once per run.
+     */
+    @NonNull
+    public static PomSession of(@NonNull final Path basePath) {
+        final Path pomXml = basePath.resolve("pom.xml");
+        final FileTime stamp;
+        try {
+            stamp = Files.getLastModifiedTime(pomXml);
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException("Project pom.xml could not be found." + basePath.toAbsolutePath().toString());
+        } catch (Exception e) {
+            throw new IllegalStateException("Pom could not parsed ->" + basePath.toAbsolutePath().toString(), e);
+        }
+
+        // Parse the pom again only if it has been changed ...
+        return sessions.compute(basePath, (path, session) -> session != null && session.stamp.equals(stamp) ? session : new PomSession(path, pomXml, stamp));
+    }
+
+    public static void release(@NonNull final Path basePath) {
+        sessions.remove(basePath);
+    }
+
+    @NonNull
+    public static XPathExpression compile(@NonNull final String xpathExp) {
+        final XPath xpath = xpathFactory.get().newXPath();
+
+        // Set namespace context resolver...
+        xpath.setNamespaceContext(new PomNamespaceContext());
+        try {
+            return xpath.compile(xpathExp);
+        } catch (XPathExpressionException e) {
+            throw new DevKitSonarRuntimeException("XPath expression could not be compiled '" + xpathExp + "'", e);
+        }
+    }
+
+    @NonNull
+    public Object evaluate(@NonNull final String xpathExp, @NonNull final QName constant) {
+        final XPathExpression expression = expressions.computeIfAbsent(xpathExp, PomSession::compile);
+        return evaluate(expression, constant);
+    }
+
+    /**
+     * Boolean value of a compiled expression, evaluated once per parsed pom no matter how many rules ask for it.
+     */
+    public boolean test(@NonNull final String xpathExp, @NonNull final XPathExpression expression) {
+        return predicates.computeIfAbsent(xpathExp, exp -> (boolean) evaluate(expression, XPathConstants.BOOLEAN));
+    }
+
+    @NonNull
+    public Object evaluate(@NonNull final XPathExpression expression, @NonNull final QName constant) {
+
+        // Neither DOM documents, even when only read, nor compiled expressions are thread safe. Expressions could be shared among modules ...
+        synchronized (document) {
+            synchronized (expression) {
+                try {
+                    return expression.evaluate(document, constant);
+                } catch (XPathExpressionException e) {
+                    throw new IllegalStateException("Pom could not parsed ->" + basePath.toAbsolutePath().toString(), e);
+                }
+            }
+        }
+    }
+}
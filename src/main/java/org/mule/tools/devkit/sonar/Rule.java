@@ -5,10 +5,22 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.mule.tools.devkit.sonar.exception.DevKitSonarRuntimeException;
 
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.Set;
 
 public interface Rule {
 
+    /**
+     * Input standing for the module layout, this is the list of files and directories of the module.
+     */
+    Path MODULE_LAYOUT = Paths.get("");
+
+    /**
+     * Input standing for the module class path, this is the compiled classes of the module and its dependency jars.
+     */
+    Path MODULE_CLASS_PATH = Paths.get("target", "classes");
+
     @NonNull
     boolean accepts(@NonNull Path basePath, @NonNull Path childPath);
 
@@ -18,6 +30,14 @@ public interface Rule {
     @NonNull
     Documentation getDocumentation();
 
+    /**
+     * Paths, relative to the module, whose content determines the result of verifying the child path. Used to decide if a cached result is still valid.
+     */
+    @NonNull
+    default Set<Path> inputs(@NonNull Path basePath, @NonNull Path childPath) {
+        return Collections.singleton(childPath);
+    }
+
     interface Documentation {
 
         @Nullable
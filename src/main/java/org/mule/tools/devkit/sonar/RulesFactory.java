@@ -6,6 +6,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.Set;
 
 public class RulesFactory {
@@ -14,9 +15,17 @@ public class RulesFactory {
 
     @NonNull
     public static Set<Rule> load() throws IOException {
+        return load(Collections.emptySet());
+    }
+
+    /**
+     * Loads the rules of the given types, all the rules if no type is given.
+     */
+    @NonNull
+    public static Set<Rule> load(@NonNull final Set<String> types) throws IOException {
 
         // Load JSON declared rules ...
-        final Set<Rule> result = JsonRulesLoader.build();
+        final Set<Rule> result = JsonRulesLoader.build(types);
         logger.debug(result.toString());
 
         return result;
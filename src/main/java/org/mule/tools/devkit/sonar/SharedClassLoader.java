@@ -0,0 +1,88 @@
+package org.mule.tools.devkit.sonar;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Class loader layer shared by the modules with the same jars. Platform jars of a DevKit version form the bottom layer and each distinct set of
+ * module dependencies a layer on top of it. Layers are closed once no module class loader uses them.
+ */
+class SharedClassLoader extends URLClassLoader {
+
+    final private static Logger logger = LoggerFactory.getLogger(SharedClassLoader.class);
+
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
+    // Guarded by the class lock ...
+    private static final Map<String, SharedClassLoader> layers = new HashMap<>();
+
+    private final String key;
+    private final SharedClassLoader parentLayer;
+    private int references;
+
+    private SharedClassLoader(@NonNull final String key, @NonNull final URL[] urls, @NonNull final ClassLoader parent, @Nullable final SharedClassLoader parentLayer) {
+        super(urls, parent);
+        this.key = key;
+        this.parentLayer = parentLayer;
+    }
+
+    /**
+     * Dependencies layer for the given jars, created on top of the platform layer if no other module uses the same jars. Every call must be paired
+     * with a {@link #release()}.
+     */
+    @NonNull
+    static synchronized SharedClassLoader acquire(@NonNull final URL[] platformUrls, @NonNull final URL[] dependencyUrls) {
+        final String platformKey = key(platformUrls);
+        final String dependenciesKey = platformKey + "\n" + key(dependencyUrls);
+
+        SharedClassLoader result = layers.get(dependenciesKey);
+        if (result == null) {
+            final SharedClassLoader platform = layers.computeIfAbsent(platformKey, k -> {
+                logger.debug("Creating platform class loader -> {}", k);
+                return new SharedClassLoader(k, platformUrls, ModuleClassLoader.class.getClassLoader(), null);
+            });
+            platform.references++;
+
+            result = new SharedClassLoader(dependenciesKey, dependencyUrls, platform, platform);
+            layers.put(dependenciesKey, result);
+        }
+        result.references++;
+        return result;
+    }
+
+    void release() {
+        synchronized (SharedClassLoader.class) {
+            if (--references > 0) {
+                return;
+            }
+
+            layers.remove(key);
+            try {
+                close();
+            } catch (IOException e) {
+                logger.warn("Shared class loader could not be closed -> {}", key, e);
+            }
+            if (parentLayer != null) {
+                parentLayer.release();
+            }
+        }
+    }
+
+    // Jar order matters, it is the lookup order ...
+    @NonNull
+    private static String key(@NonNull final URL[] urls) {
+        return Arrays.stream(urls).map(URL::toString).collect(Collectors.joining(";"));
+    }
+}
@@ -0,0 +1,169 @@
+package org.mule.tools.devkit.sonar;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.tools.devkit.sonar.output.ConsoleReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.tools.ToolProvider;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-lived validator listening on a loopback port. Rules and the Java compiler are loaded once and every request only pays for the validation itself.
+ * <p>
+ * A request is the module path, the number of jobs and the content of the module '.certignore'. The console report is streamed back and the connection is
+ * closed. Module contexts are kept warm between requests and only built again if the module pom or connector class changed.
+ */
+public class ValidationDaemon {
+
+    final private static Logger logger = LoggerFactory.getLogger(ValidationDaemon.class);
+    private static final int MAX_IGNORE_LENGTH = 16 * 1024 * 1024;
+    private static final int READ_TIMEOUT_MILLIS = 30 * 1000;
+
+    private final ConnectorModuleValidator validator;
+    private final int port;
+    private final int threads;
+
+    // Runs over the same module are not allowed to overlap ...
+    private final Map<Path, Object> moduleLocks = new ConcurrentHashMap<>();
+
+    // Updated under the module lock ...
+    private final Map<Path, List<FileTime>> moduleStamps = new ConcurrentHashMap<>();
+
+    /**
+     * @param threads number of requests validated concurrently, further requests wait for a free thread.
+     */
+    public ValidationDaemon(@NonNull final ConnectorModuleValidator validator, final int port, final int threads) {
+        this.validator = validator;
+        this.port = port;
+        this.threads = Math.max(1, threads);
+    }
+
+    public void run() throws IOException {
+
+        // Warm up the compiler before the first request ...
+        ToolProvider.getSystemJavaCompiler().getStandardFileManager(null, null, null).close();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (final ServerSocket serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            logger.info("Validation daemon listening on port {}", serverSocket.getLocalPort());
+            while (!Thread.currentThread().isInterrupted()) {
+                final Socket socket = serverSocket.accept();
+                executor.execute(() -> handle(socket));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void handle(@NonNull final Socket socket) {
+        try (final Socket client = socket) {
+            final PrintStream out = new PrintStream(new BufferedOutputStream(client.getOutputStream()), false, StandardCharsets.UTF_8.name());
+
+            // Clients that stall do not hold a validation thread forever ...
+            client.setSoTimeout(READ_TIMEOUT_MILLIS);
+            final Path modulePath;
+            final int jobs;
+            final Properties ignore = new Properties();
+            try {
+                final DataInputStream in = new DataInputStream(new BufferedInputStream(client.getInputStream()));
+                modulePath = Paths.get(in.readUTF()).toAbsolutePath().normalize();
+                jobs = in.readInt();
+                ignore.load(new InputStreamReader(new ByteArrayInputStream(readIgnore(in)), StandardCharsets.ISO_8859_1));
+            } catch (IOException | IllegalArgumentException e) {
+                logger.warn("Validation request could not be read", e);
+                out.printf("Invalid validation request: %s\n", e.getMessage());
+                out.flush();
+                return;
+            }
+
+            try {
+                final Set<ValidationError> errors;
+                synchronized (moduleLocks.computeIfAbsent(modulePath, path -> new Object())) {
+                    // Module files may have changed since the previous request ...
+                    if (isOutdated(modulePath)) {
+                        ContextImpl.invalidate(modulePath);
+                        moduleStamps.put(modulePath, stamps(modulePath));
+                    }
+                    errors = validator.execute(modulePath, ignore, jobs);
+                }
+                new ConsoleReport(out).process(modulePath, errors);
+                logger.debug("Module contexts live: {}, evicted: {}", ContextImpl.getLiveInstances(), ContextImpl.getEvictedInstances());
+            } catch (RuntimeException e) {
+                logger.error("Validation failed. Module path {}", modulePath, e);
+                out.printf("Validation failed over '%s': %s\n", modulePath, e.getMessage());
+            }
+            out.flush();
+        } catch (IOException e) {
+            logger.warn("Validation request could not be processed", e);
+        }
+    }
+
+    private boolean isOutdated(@NonNull final Path modulePath) {
+        final List<FileTime> stamps = stamps(modulePath);
+        final List<FileTime> previous = moduleStamps.put(modulePath, stamps);
+        return previous != null && (stamps.isEmpty() || !stamps.equals(previous));
+    }
+
+    // Pom and connector class stamps, empty if any of them could not be read ...
+    @NonNull
+    private static List<FileTime> stamps(@NonNull final Path modulePath) {
+        final Optional<Path> connectorPath = ((ContextImpl) Context.getInstance(modulePath)).getConnectorPath();
+        if (!connectorPath.isPresent()) {
+            return Collections.emptyList();
+        }
+        try {
+            return Arrays.asList(Files.getLastModifiedTime(modulePath.resolve("pom.xml")), Files.getLastModifiedTime(connectorPath.get()));
+        } catch (IOException e) {
+            return Collections.emptyList();
+        }
+    }
+
+    @NonNull
+    private static byte[] readIgnore(@NonNull final DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0 || length > MAX_IGNORE_LENGTH) {
+            throw new IOException("Invalid ignore file length " + length);
+        }
+        final byte[] result = new byte[length];
+        in.readFully(result);
+        return result;
+    }
+
+    /**
+     * Sends a validation request to a running daemon and copies the report to the given stream.
+     */
+    public static void request(final int port, @NonNull final Path modulePath, final int jobs, @NonNull final PrintStream out) throws IOException {
+        final Path ignorePath = modulePath.resolve(ConnectorModuleValidator.CERTIGNORE_FILE_NAME);
+        final byte[] ignore = Files.exists(ignorePath) ? Files.readAllBytes(ignorePath) : new byte[0];
+
+        try (final Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            final DataOutputStream request = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            request.writeUTF(modulePath.toAbsolutePath().toString());
+            request.writeInt(jobs);
+            request.writeInt(ignore.length);
+            request.write(ignore);
+            request.flush();
+
+            final InputStream response = socket.getInputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = response.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            out.flush();
+        }
+    }
+}
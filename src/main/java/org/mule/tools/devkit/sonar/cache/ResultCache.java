@@ -0,0 +1,383 @@
+package org.mule.tools.devkit.sonar.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.tools.devkit.sonar.Lazy;
+import org.mule.tools.devkit.sonar.ModuleClassLoader;
+import org.mule.tools.devkit.sonar.Rule;
+import org.mule.tools.devkit.sonar.ValidationError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Rule results of a module persisted between runs. A result is reused while the content of the rule inputs, the rules definition and the validator code have not changed.
+ */
+public class ResultCache {
+
+    final private static Logger logger = LoggerFactory.getLogger(ResultCache.class);
+
+    public static final String CACHE_DIR = "target/.certcache";
+    private static final String CACHE_FILE = "results.json";
+    private static final String RULES_RESOURCE = "rules.json";
+
+    // Validator code does not change while the process is running ...
+    private static final Lazy<Optional<String>> fingerprint = Lazy.of(ResultCache::computeFingerprint);
+
+    private final Path cacheFile;
+    private final Optional<String> rulesHash;
+    private final String layoutHash;
+    private final Path basePath;
+    private final Map<String, Rule.Documentation> docsById;
+    private final Map<String, CachedResult> previous;
+    private final Map<String, CachedResult> current = new ConcurrentHashMap<>();
+    private final Map<Path, String> hashes = new ConcurrentHashMap<>();
+
+    private ResultCache(@NonNull final Path basePath, @NonNull final Collection<Rule> rules, @NonNull final List<Path> files, @NonNull final Optional<String> rulesHash) {
+        this.basePath = basePath;
+        this.cacheFile = basePath.resolve(CACHE_DIR).resolve(CACHE_FILE);
+        this.rulesHash = rulesHash;
+        this.docsById = rules.stream().map(Rule::getDocumentation).collect(Collectors.toMap(Rule.Documentation::getId, doc -> doc, (a, b) -> a));
+
+        // Layout is identified by the sorted list of files ...
+        final String layout = files.stream().map(Path::toString).sorted().collect(Collectors.joining("\n"));
+        this.layoutHash = hash(layout.getBytes(StandardCharsets.UTF_8));
+
+        this.previous = read();
+    }
+
+    @NonNull
+    public static ResultCache load(@NonNull final Path basePath, @NonNull final Collection<Rule> rules, @NonNull final List<Path> files) {
+        return load(basePath, rules, files, validatorFingerprint());
+    }
+
+    /**
+     * Cache of the results computed by the rules and the validator code identified by the fingerprint. Nothing is reused or stored without it.
+     */
+    @NonNull
+    public static ResultCache load(@NonNull final Path basePath, @NonNull final Collection<Rule> rules, @NonNull final List<Path> files,
+                                   @NonNull final Optional<String> fingerprint) {
+        if (!fingerprint.isPresent()) {
+            logger.warn("Validator code could not be identified. Rule results will not be cached -> '{}'", basePath);
+        }
+        return new ResultCache(basePath, rules, files, fingerprint);
+    }
+
+    /**
+     * Returns the cached errors for the rule and the file if none of its inputs has changed. Otherwise, the verification is executed and its result is cached.
+     */
+    @NonNull
+    public Set<ValidationError> compute(@NonNull final Rule rule, @NonNull final Path childPath, @NonNull final Supplier<Set<ValidationError>> verification) {
+        final String key = rule.getDocumentation().getId() + "|" + childPath.toString();
+        final String inputsHash = inputsHash(rule, childPath);
+
+        final CachedResult cached = previous.get(key);
+        final Set<ValidationError> result;
+        if (cached != null && inputsHash.equals(cached.getHash())) {
+            logger.debug("Reusing cached result -> '{}'", key);
+            result = cached.getErrors().stream().map(this::toError).collect(Collectors.toSet());
+            current.put(key, cached);
+        } else {
+            result = verification.get();
+            current.put(key, new CachedResult(inputsHash, result.stream().map(this::toCachedError).collect(Collectors.toList())));
+        }
+        return result;
+    }
+
+    public void save() throws IOException {
+        if (!rulesHash.isPresent()) {
+            return;
+        }
+
+        final CacheData data = new CacheData();
+        data.setRulesHash(rulesHash.get());
+        data.setResults(new TreeMap<>(current));
+
+        Files.createDirectories(cacheFile.getParent());
+        new ObjectMapper().writeValue(cacheFile.toFile(), data);
+    }
+
+    @NonNull
+    private Map<String, CachedResult> read() {
+        Map<String, CachedResult> result = Collections.emptyMap();
+        if (rulesHash.isPresent() && Files.exists(cacheFile)) {
+            try {
+                final CacheData data = new ObjectMapper().readValue(cacheFile.toFile(), CacheData.class);
+
+                // Rules have changed. All the results must be computed again ...
+                if (rulesHash.get().equals(data.getRulesHash())) {
+                    result = data.getResults();
+                }
+            } catch (IOException e) {
+                logger.warn("Results cache could not be read. It will be rebuilt -> '{}'", cacheFile);
+            }
+        }
+        return result;
+    }
+
+    @NonNull
+    private String inputsHash(@NonNull final Rule rule, @NonNull final Path childPath) {
+        final List<Path> inputs = new ArrayList<>(rule.inputs(basePath, childPath));
+        Collections.sort(inputs);
+
+        final StringBuilder builder = new StringBuilder();
+        for (Path input : inputs) {
+            builder.append(input.toString()).append('=').append(contentHash(input)).append('\n');
+        }
+        return hash(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @NonNull
+    private String contentHash(@NonNull final Path input) {
+        if (input.equals(Rule.MODULE_LAYOUT)) {
+            return layoutHash;
+        }
+        if (input.equals(Rule.MODULE_CLASS_PATH)) {
+            return hashes.computeIfAbsent(input, path -> classPathHash());
+        }
+
+        return hashes.computeIfAbsent(input, path -> {
+            final Path file = basePath.resolve(path);
+            try {
+                return Files.isDirectory(file) ? "dir" : Files.exists(file) ? hash(Files.readAllBytes(file)) : "none";
+            } catch (IOException e) {
+                // Always considered modified ...
+                return UUID.randomUUID().toString();
+            }
+        });
+    }
+
+    /**
+     * Stamps of the module classes and the dependency jars. Contents are not read, class directories and jars are only rewritten by builds. Jars
+     * are listed from the cached pom model, no class loader is created.
+     */
+    @NonNull
+    private String classPathHash() {
+        final StringBuilder builder = new StringBuilder();
+        try {
+            for (Path location : ModuleClassLoader.classPath(basePath)) {
+                builder.append(location).append('\n');
+                appendStamps(builder, location);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Always considered modified ...
+            return UUID.randomUUID().toString();
+        }
+        return hash(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @NonNull
+    private ValidationError toError(@NonNull final CachedError error) {
+        final Rule.Documentation doc = docsById.get(error.getRuleId());
+        return ValidationError.create(doc, error.getUuid(), error.getMessage());
+    }
+
+    @NonNull
+    private CachedError toCachedError(@NonNull final ValidationError error) {
+        final String ruleId = error.getDocumentation().getId();
+
+        // UUID is prefixed with the rule id ...
+        final String uuid = error.getUUID();
+        final String suffix = uuid.length() > ruleId.length() ? uuid.substring(ruleId.length() + 1) : null;
+        return new CachedError(ruleId, suffix, error.getMessage());
+    }
+
+    /**
+     * Identifies the rules definition and the validator code, empty if the code could not be located. Anything derived from the module
+     * by the validator can only be reused while it does not change.
+     */
+    @NonNull
+    public static Optional<String> validatorFingerprint() {
+        return fingerprint.get();
+    }
+
+    @NonNull
+    private static Optional<String> computeFingerprint() {
+        final MessageDigest digest = newDigest();
+        try (final InputStream is = ResultCache.class.getClassLoader().getResourceAsStream(RULES_RESOURCE)) {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = is.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+
+            // Rule implementations change with the jar or, in development, the compiled classes ...
+            final Optional<Path> location = codeLocation();
+            if (!location.isPresent()) {
+                return Optional.empty();
+            }
+            final StringBuilder builder = new StringBuilder();
+            appendStamps(builder, location.get());
+            digest.update(builder.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Validator code could not be read", e);
+            return Optional.empty();
+        }
+        return Optional.of(toHex(digest.digest()));
+    }
+
+    @NonNull
+    private static Optional<Path> codeLocation() {
+        final CodeSource codeSource = ResultCache.class.getProtectionDomain().getCodeSource();
+        final URL location = codeSource != null ? codeSource.getLocation() : null;
+        try {
+            return location != null && "file".equals(location.getProtocol()) ? Optional.of(Paths.get(location.toURI())) : Optional.empty();
+        } catch (URISyntaxException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Size and modification time of the jar or of every class in the directory.
+     */
+    private static void appendStamps(@NonNull final StringBuilder builder, @NonNull final Path location) throws IOException {
+        if (Files.isDirectory(location)) {
+            try (final Stream<Path> paths = Files.walk(location)) {
+                final List<Path> classes = paths.filter(path -> path.toString().endsWith(".class")).sorted().collect(Collectors.toList());
+                for (Path path : classes) {
+                    appendStamp(builder, location.relativize(path), path);
+                }
+            }
+        } else if (Files.exists(location)) {
+            appendStamp(builder, location, location);
+        }
+    }
+
+    private static void appendStamp(@NonNull final StringBuilder builder, @NonNull final Path name, @NonNull final Path path) throws IOException {
+        builder.append(name).append('=').append(Files.size(path)).append('@').append(Files.getLastModifiedTime(path).toMillis()).append('\n');
+    }
+
+    /**
+     * SHA-1 of the content as an hexadecimal string.
+     */
+    @NonNull
+    public static String hash(@NonNull final byte[] content) {
+        return toHex(newDigest().digest(content));
+    }
+
+    @NonNull
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @NonNull
+    private static String toHex(@NonNull final byte[] bytes) {
+        final StringBuilder result = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            result.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return result.toString();
+    }
+
+    public static class CacheData {
+
+        private String rulesHash;
+        private Map<String, CachedResult> results = new HashMap<>();
+
+        public String getRulesHash() {
+            return rulesHash;
+        }
+
+        public void setRulesHash(String rulesHash) {
+            this.rulesHash = rulesHash;
+        }
+
+        public Map<String, CachedResult> getResults() {
+            return results;
+        }
+
+        public void setResults(Map<String, CachedResult> results) {
+            this.results = results;
+        }
+    }
+
+    public static class CachedResult {
+
+        private String hash;
+        private List<CachedError> errors = new ArrayList<>();
+
+        public CachedResult() {
+        }
+
+        CachedResult(String hash, List<CachedError> errors) {
+            this.hash = hash;
+            this.errors = errors;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public void setHash(String hash) {
+            this.hash = hash;
+        }
+
+        public List<CachedError> getErrors() {
+            return errors;
+        }
+
+        public void setErrors(List<CachedError> errors) {
+            this.errors = errors;
+        }
+    }
+
+    public static class CachedError {
+
+        private String ruleId;
+        private String uuid;
+        private String message;
+
+        public CachedError() {
+        }
+
+        CachedError(String ruleId, String uuid, String message) {
+            this.ruleId = ruleId;
+            this.uuid = uuid;
+            this.message = message;
+        }
+
+        public String getRuleId() {
+            return ruleId;
+        }
+
+        public void setRuleId(String ruleId) {
+            this.ruleId = ruleId;
+        }
+
+        public String getUuid() {
+            return uuid;
+        }
+
+        public void setUuid(String uuid) {
+            this.uuid = uuid;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
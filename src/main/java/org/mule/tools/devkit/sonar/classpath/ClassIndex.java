@@ -0,0 +1,119 @@
+package org.mule.tools.devkit.sonar.classpath;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Index from class name to class file over a module class path. Jar entries come from the shared {@link JarIndex} and are mapped to their jar
+ * once per index. A jar is only opened once a class is read from it, directories are looked up on demand and any other class is read as a
+ * resource of the fallback class loader. Classes are never defined.
+ */
+public class ClassIndex implements Closeable {
+
+    final private static Logger logger = LoggerFactory.getLogger(ClassIndex.class);
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final Map<String, Path> jarsByEntry = new HashMap<>();
+    private final Map<Path, ZipFile> openJars = new HashMap<>();
+    private final List<Path> directories = new ArrayList<>();
+    private final ClassLoader fallback;
+
+    public ClassIndex(@NonNull final URL[] classPath, @NonNull final ClassLoader fallback) {
+        this(classPath, fallback, JarIndex.shared());
+    }
+
+    public ClassIndex(@NonNull final URL[] classPath, @NonNull final ClassLoader fallback, @NonNull final JarIndex jarIndex) {
+        this.fallback = fallback;
+
+        for (URL url : classPath) {
+            final Path path;
+            try {
+                path = Paths.get(url.toURI());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                logger.warn("Class path entry could not be indexed -> {}", url);
+                continue;
+            }
+
+            if (Files.isDirectory(path)) {
+                directories.add(path);
+            } else if (Files.isRegularFile(path)) {
+
+                // First jar declaring a class wins, as in the class loader ...
+                for (String entry : jarIndex.entries(path)) {
+                    jarsByEntry.putIfAbsent(entry, path);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the class header of a class given its binary name, e.g. 'java.util.Map$Entry'.
+     */
+    @NonNull
+    public Optional<ClassInfo> find(@NonNull final String className) {
+        final String entryName = className.replace('.', '/') + CLASS_SUFFIX;
+        try {
+            final Path jarPath = jarsByEntry.get(entryName);
+            if (jarPath != null) {
+                final ZipFile jar = open(jarPath);
+                final ZipEntry entry = jar.getEntry(entryName);
+                if (entry != null) {
+                    try (final InputStream is = jar.getInputStream(entry)) {
+                        return Optional.of(ClassInfo.read(is));
+                    }
+                }
+            }
+
+            for (Path directory : directories) {
+                final Path classFile = directory.resolve(entryName);
+                if (Files.isRegularFile(classFile)) {
+                    try (final InputStream is = Files.newInputStream(classFile)) {
+                        return Optional.of(ClassInfo.read(is));
+                    }
+                }
+            }
+
+            // JDK and validator classes ...
+            try (final InputStream is = fallback.getResourceAsStream(entryName)) {
+                return is != null ? Optional.of(ClassInfo.read(is)) : Optional.empty();
+            }
+        } catch (IOException e) {
+            logger.warn("Class file could not be read -> {}", entryName, e);
+            return Optional.empty();
+        }
+    }
+
+    @NonNull
+    private synchronized ZipFile open(@NonNull final Path jarPath) throws IOException {
+        ZipFile result = openJars.get(jarPath);
+        if (result == null) {
+            result = new ZipFile(jarPath.toFile());
+            openJars.put(jarPath, result);
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (ZipFile jar : openJars.values()) {
+            try {
+                jar.close();
+            } catch (IOException e) {
+                logger.warn("Jar could not be closed -> {}", jar.getName(), e);
+            }
+        }
+    }
+}
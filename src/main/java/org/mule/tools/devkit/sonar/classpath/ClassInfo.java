@@ -0,0 +1,168 @@
+package org.mule.tools.devkit.sonar.classpath;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Class metadata read from the class file header: access flags, super class and interfaces. Reading it never defines the class.
+ */
+public class ClassInfo {
+
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final int ACC_ENUM = 0x4000;
+
+    private final String name;
+    private final int accessFlags;
+    private final Optional<String> superName;
+    private final List<String> interfaces;
+
+    ClassInfo(@NonNull final String name, final int accessFlags, @NonNull final Optional<String> superName, @NonNull final List<String> interfaces) {
+        this.name = name;
+        this.accessFlags = accessFlags;
+        this.superName = superName;
+        this.interfaces = interfaces;
+    }
+
+    /**
+     * Parses the header of a class file, the stream is read up to the implemented interfaces.
+     */
+    @NonNull
+    public static ClassInfo read(@NonNull final InputStream is) throws IOException {
+        final DataInputStream in = new DataInputStream(is);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Invalid class file");
+        }
+        in.readUnsignedShort();
+        in.readUnsignedShort();
+
+        // Keep UTF8 entries and class references, skip the rest of the constant pool ...
+        final int poolSize = in.readUnsignedShort();
+        final String[] utf8 = new String[poolSize];
+        final int[] classNames = new int[poolSize];
+        for (int i = 1; i < poolSize; i++) {
+            final int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1:
+                    utf8[i] = in.readUTF();
+                    break;
+                case 7:
+                    classNames[i] = in.readUnsignedShort();
+                    break;
+                case 8:
+                case 16:
+                case 19:
+                case 20:
+                    in.skipBytes(2);
+                    break;
+                case 15:
+                    in.skipBytes(3);
+                    break;
+                case 3:
+                case 4:
+                case 9:
+                case 10:
+                case 11:
+                case 12:
+                case 17:
+                case 18:
+                    in.skipBytes(4);
+                    break;
+                case 5:
+                case 6:
+                    in.skipBytes(8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unsupported constant pool tag " + tag);
+            }
+        }
+
+        final int accessFlags = in.readUnsignedShort();
+        final String name = toBinaryName(utf8[classNames[in.readUnsignedShort()]]);
+        final int superIndex = in.readUnsignedShort();
+        final Optional<String> superName = superIndex == 0 ? Optional.empty() : Optional.of(toBinaryName(utf8[classNames[superIndex]]));
+
+        final int interfacesCount = in.readUnsignedShort();
+        final List<String> interfaces = new ArrayList<>(interfacesCount);
+        for (int i = 0; i < interfacesCount; i++) {
+            interfaces.add(toBinaryName(utf8[classNames[in.readUnsignedShort()]]));
+        }
+        return new ClassInfo(name, accessFlags, superName, Collections.unmodifiableList(interfaces));
+    }
+
+    /**
+     * Binary name, e.g. 'java.util.Map$Entry'.
+     */
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    @NonNull
+    public String getCanonicalName() {
+        return name.replace('$', '.');
+    }
+
+    public int getAccessFlags() {
+        return accessFlags;
+    }
+
+    @NonNull
+    public Optional<String> getSuperName() {
+        return superName;
+    }
+
+    @NonNull
+    public List<String> getInterfaces() {
+        return interfaces;
+    }
+
+    public boolean isInterface() {
+        return (accessFlags & ACC_INTERFACE) != 0;
+    }
+
+    public boolean isAnnotation() {
+        return (accessFlags & ACC_ANNOTATION) != 0;
+    }
+
+    public boolean isEnum() {
+        return (accessFlags & ACC_ENUM) != 0 && superName.isPresent() && superName.get().equals(Enum.class.getName());
+    }
+
+    /**
+     * Same as {@link Class#isAssignableFrom(Class)}, the other class hierarchy is already loaded and can be inspected.
+     */
+    public boolean isAssignableFrom(@NonNull final Class<?> other) {
+        final Deque<Class<?>> pending = new ArrayDeque<>();
+        pending.push(other);
+        while (!pending.isEmpty()) {
+            final Class<?> type = pending.pop();
+            if (type.getName().equals(name)) {
+                return true;
+            }
+            if (type.getSuperclass() != null) {
+                pending.push(type.getSuperclass());
+            }
+            pending.addAll(Arrays.asList(type.getInterfaces()));
+        }
+
+        // Interfaces extend Object too ...
+        return name.equals(Object.class.getName());
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    @NonNull
+    private static String toBinaryName(@NonNull final String internalName) {
+        return internalName.replace('/', '.');
+    }
+}
@@ -0,0 +1,261 @@
+package org.mule.tools.devkit.sonar.classpath;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.tools.devkit.sonar.Lazy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Class entries of every jar seen by the validator, shared by all modules and persisted between runs. The index file is memory mapped and the
+ * entries of a jar are only decoded when the jar is used. A jar is listed again only if its modification time or size has changed.
+ */
+public class JarIndex {
+
+    final private static Logger logger = LoggerFactory.getLogger(JarIndex.class);
+
+    public static final String FILE_PROPERTY = "devkit.sonar.jarindex";
+    private static final String DEFAULT_FILE = ".devkit-sonar/jar-index.bin";
+    private static final int MAGIC = 0x4A494458;
+    private static final int VERSION = 1;
+    private static final String CLASS_SUFFIX = ".class";
+
+    private static final Lazy<JarIndex> shared = Lazy.of(() -> JarIndex.load(defaultFile()));
+
+    private final Path file;
+    private final Map<Path, JarEntries> jars = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    private JarIndex(@NonNull final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Index used by every module of the process, loaded from the user home or the file set with -Ddevkit.sonar.jarindex.
+     */
+    @NonNull
+    public static JarIndex shared() {
+        return shared.get();
+    }
+
+    /**
+     * Persists the shared index if it has been used and new jars have been listed.
+     */
+    public static void saveShared() {
+        shared.peek().ifPresent(JarIndex::save);
+    }
+
+    @NonNull
+    static Path defaultFile() {
+        final String file = System.getProperty(FILE_PROPERTY);
+        return file != null ? Paths.get(file) : Paths.get(System.getProperty("user.home")).resolve(DEFAULT_FILE);
+    }
+
+    @NonNull
+    public static JarIndex load(@NonNull final Path file) {
+        final JarIndex result = new JarIndex(file);
+        if (!Files.isRegularFile(file)) {
+            return result;
+        }
+
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                logger.warn("Jar index has an unknown format and will be rebuilt -> {}", file);
+                return result;
+            }
+
+            // Entries are kept as views of the mapped file ...
+            final int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                final Path jar = Paths.get(readString(buffer));
+                final long modified = buffer.getLong();
+                final long size = buffer.getLong();
+                final int length = buffer.getInt();
+
+                final ByteBuffer entries = buffer.slice();
+                entries.limit(length);
+                buffer.position(buffer.position() + length);
+                result.jars.put(jar, new JarEntries(modified, size, entries));
+            }
+            logger.debug("Jar index loaded. Jars {} -> {}", count, file);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Jar index could not be read and will be rebuilt -> {}", file, e);
+            result.jars.clear();
+        }
+        return result;
+    }
+
+    /**
+     * Class entry names, e.g. 'java/util/Map$Entry.class', of the jar. Empty if the jar can not be read.
+     */
+    @NonNull
+    public Set<String> entries(@NonNull final Path jar) {
+        final Path key = jar.toAbsolutePath().normalize();
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(key, BasicFileAttributes.class);
+        } catch (IOException e) {
+            logger.warn("Jar could not be indexed -> {}", key);
+            return Collections.emptySet();
+        }
+
+        final long modified = attributes.lastModifiedTime().toMillis();
+        final JarEntries cached = jars.get(key);
+        if (cached != null && cached.modified == modified && cached.size == attributes.size()) {
+            return cached.get();
+        }
+
+        final JarEntries listed = new JarEntries(modified, attributes.size(), list(key));
+        jars.put(key, listed);
+        dirty = true;
+        return listed.get();
+    }
+
+    @NonNull
+    private static Set<String> list(@NonNull final Path jar) {
+        final Set<String> result = new HashSet<>();
+        try (final ZipFile zip = new ZipFile(jar.toFile())) {
+            final Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                final String entryName = entries.nextElement().getName();
+                if (entryName.endsWith(CLASS_SUFFIX)) {
+                    result.add(entryName);
+                }
+            }
+            logger.debug("Jar indexed. Classes {} -> {}", result.size(), jar);
+        } catch (IOException e) {
+            logger.warn("Jar could not be indexed -> {}", jar, e);
+        }
+        return result;
+    }
+
+    /**
+     * Writes the index if new jars have been listed. The file is replaced atomically, concurrent processes keep the last written index.
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+
+        // Jars listed while writing mark the index dirty again ...
+        dirty = false;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            final Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            try {
+                write(temp);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // Partial indexes are not left next to the index ...
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            logger.debug("Jar index saved. Jars {} -> {}", jars.size(), file);
+        } catch (IOException e) {
+            dirty = true;
+            logger.warn("Jar index could not be saved -> {}", file, e);
+        }
+    }
+
+    private void write(@NonNull final Path temp) throws IOException {
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            final Map<Path, JarEntries> snapshot = new HashMap<>(jars);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<Path, JarEntries> entry : snapshot.entrySet()) {
+                final JarEntries jar = entry.getValue();
+                writeString(out, entry.getKey().toString());
+                out.writeLong(jar.modified);
+                out.writeLong(jar.size);
+
+                final byte[] encoded = jar.encode();
+                out.writeInt(encoded.length);
+                out.write(encoded);
+            }
+        }
+    }
+
+    @NonNull
+    private static String readString(@NonNull final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(@NonNull final DataOutputStream out, @NonNull final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static class JarEntries {
+
+        private final long modified;
+        private final long size;
+        private ByteBuffer encoded;
+        private Set<String> entries;
+
+        JarEntries(final long modified, final long size, @NonNull final ByteBuffer encoded) {
+            this.modified = modified;
+            this.size = size;
+            this.encoded = encoded;
+        }
+
+        JarEntries(final long modified, final long size, @NonNull final Set<String> entries) {
+            this.modified = modified;
+            this.size = size;
+            this.entries = Collections.unmodifiableSet(entries);
+        }
+
+        @NonNull
+        synchronized Set<String> get() {
+            if (entries == null) {
+                final ByteBuffer buffer = encoded.duplicate();
+                final int count = buffer.getInt();
+                final Set<String> result = new HashSet<>(count * 4 / 3 + 1);
+                for (int i = 0; i < count; i++) {
+                    result.add(readString(buffer));
+                }
+                entries = Collections.unmodifiableSet(result);
+                encoded = null;
+            }
+            return entries;
+        }
+
+        @NonNull
+        synchronized byte[] encode() throws IOException {
+
+            // Jars not used in this run are copied as read ...
+            if (encoded != null) {
+                final byte[] result = new byte[encoded.remaining()];
+                encoded.duplicate().get(result);
+                return result;
+            }
+
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (final DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(entries.size());
+                for (String entry : entries) {
+                    writeString(out, entry);
+                }
+            }
+            return bytes.toByteArray();
+        }
+    }
+}
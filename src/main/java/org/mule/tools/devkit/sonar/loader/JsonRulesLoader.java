@@ -7,6 +7,7 @@ import org.mule.tools.devkit.sonar.rule.*;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -25,11 +26,34 @@ public class JsonRulesLoader {
 
     @NonNull
     public static Set<Rule> build() throws IOException {
+        return build(Collections.emptySet());
+    }
+
+    /**
+     * Builds only the rules of the given types, all of them if none is given. Types can be abbreviated, 'pom' stands for 'source.pom'.
+     */
+    @NonNull
+    public static Set<Rule> build(@NonNull final Set<String> types) throws IOException {
+        for (String type : types) {
+            if (builders.keySet().stream().noneMatch(builderType -> isOfType(builderType, type))) {
+                throw new IllegalStateException("Unsupported type:" + type);
+            }
+        }
+
         final ObjectMapper mapper = new ObjectMapper();
         final InputStream jsonStream = JsonRulesLoader.class.getClassLoader().getResourceAsStream("rules.json");
         final JsonRules rulesDef = mapper.readValue(jsonStream, JsonRules.class);
 
-        return rulesDef.getRules().stream().map(JsonRulesLoader::defToRule).collect(Collectors.toSet());
+        final Set<Rule> rules = rulesDef.getRules().stream().filter(ruleDef -> types.isEmpty() || types.stream().anyMatch(type -> isOfType(ruleDef.getType(), type)))
+                .map(JsonRulesLoader::defToRule).collect(Collectors.toSet());
+
+        // Connector class verifiers are applied with a single walk ...
+        JavaSourceRule.fuse(rules);
+        return rules;
+    }
+
+    private static boolean isOfType(@NonNull final String ruleType, @NonNull final String type) {
+        return ruleType.equals(type) || ruleType.endsWith("." + type);
     }
 
     @NonNull
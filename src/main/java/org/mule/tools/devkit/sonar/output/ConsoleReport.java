@@ -4,6 +4,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import org.mule.tools.devkit.sonar.Rule;
 import org.mule.tools.devkit.sonar.ValidationError;
 
+import java.io.PrintStream;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
@@ -24,27 +25,37 @@ public class ConsoleReport implements Report {
         colorExp.put(Rule.Documentation.Severity.INFO, ANSI_BLUE.getCode() + "<*>" + ANSI_RESET.getCode());
     }
 
+    private final PrintStream out;
+
+    public ConsoleReport() {
+        this(System.out);
+    }
+
+    public ConsoleReport(@NonNull final PrintStream out) {
+        this.out = out;
+    }
+
     public void process(final Path basePath, @NonNull Set<ValidationError> errors) {
 
-        System.out.printf("Performing inspection over '%s'\n", basePath.toAbsolutePath().toString());
+        out.printf("Performing inspection over '%s'\n", basePath.toAbsolutePath().toString());
 
         if (!errors.isEmpty()) {
-            System.out.println("Review the following violated inspections:");
+            out.println("Review the following violated inspections:");
 
             // Print group by error type ...
             final Map<Rule.Documentation, List<ValidationError>> errorsByType = errors.stream().collect(Collectors.groupingBy(ValidationError::getDocumentation));
             final List<Rule.Documentation> docs = errorsByType.keySet().stream().sorted((a, b) -> a.getSeverity().compareTo(b.getSeverity())).collect(Collectors.toList());
             for (Rule.Documentation doc : docs) {
                 final List<ValidationError> verrors = errorsByType.get(doc);
-                System.out.printf(" %s %s: \n", colorExp.get(doc.getSeverity()), doc.getBrief());
+                out.printf(" %s %s: \n", colorExp.get(doc.getSeverity()), doc.getBrief());
                 for (ValidationError error : verrors) {
-                    System.out.printf("\t<*> %s (id: '%s')\n", error.getMessage(), error.getUUID());
+                    out.printf("\t<*> %s (id: '%s')\n", error.getMessage(), error.getUUID());
                 }
 
             }
 
         } else {
-            System.out.printf(ANSI_GREEN.getCode() + "Congrats. All inspections rules has been satisfied." + ANSI_RESET.getCode() + "\n");
+            out.printf(ANSI_GREEN.getCode() + "Congrats. All inspections rules has been satisfied." + ANSI_RESET.getCode() + "\n");
         }
 
     }
@@ -0,0 +1,67 @@
+package org.mule.tools.devkit.sonar.output;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.tools.devkit.sonar.BatchValidator;
+import org.mule.tools.devkit.sonar.Rule;
+import org.mule.tools.devkit.sonar.ValidationError;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class SummaryReport {
+
+    private final PrintStream out;
+
+    public SummaryReport() {
+        this(System.out);
+    }
+
+    public SummaryReport(@NonNull final PrintStream out) {
+        this.out = out;
+    }
+
+    public void process(@NonNull final Map<Path, BatchValidator.ModuleResult> results) {
+
+        final Map<Rule.Documentation.Severity, Integer> totals = new EnumMap<>(Rule.Documentation.Severity.class);
+        int failed = 0;
+        int compliant = 0;
+
+        out.println("Summary:");
+        for (BatchValidator.ModuleResult result : results.values()) {
+            final Map<Rule.Documentation.Severity, Integer> counts = new EnumMap<>(Rule.Documentation.Severity.class);
+            for (ValidationError error : result.getErrors()) {
+                counts.merge(error.getDocumentation().getSeverity(), 1, Integer::sum);
+                totals.merge(error.getDocumentation().getSeverity(), 1, Integer::sum);
+            }
+
+            final String status;
+            if (result.getFailure().isPresent()) {
+                failed++;
+                status = "FAILED (" + result.getFailure().get().getMessage() + ")";
+            } else if (result.getErrors().isEmpty()) {
+                compliant++;
+                status = "OK";
+            } else {
+                status = format(counts);
+            }
+            out.printf("\t<*> %s -> %s\n", result.getModulePath().toAbsolutePath().toString(), status);
+        }
+
+        out.printf("Modules: %d, compliant: %d, with errors: %d, failed: %d\n", results.size(), compliant, results.size() - compliant - failed, failed);
+        out.printf("Errors: %s\n", format(totals));
+    }
+
+    @NonNull
+    private static String format(@NonNull final Map<Rule.Documentation.Severity, Integer> counts) {
+        final StringBuilder result = new StringBuilder();
+        for (Rule.Documentation.Severity severity : Rule.Documentation.Severity.values()) {
+            if (result.length() > 0) {
+                result.append(", ");
+            }
+            result.append(severity.name().toLowerCase()).append(": ").append(counts.getOrDefault(severity, 0));
+        }
+        return result.toString();
+    }
+}
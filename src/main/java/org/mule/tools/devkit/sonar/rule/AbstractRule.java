@@ -56,4 +56,12 @@ abstract public @Immutable class AbstractRule implements Rule {
         return accept;
     }
 
+    /**
+     * Expression matched against the whole relative path. Subclasses may only narrow what it accepts.
+     */
+    @NonNull
+    Pattern getAcceptPattern() {
+        return acceptPattern;
+    }
+
 }
@@ -0,0 +1,50 @@
+package org.mule.tools.devkit.sonar.rule;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.tools.devkit.sonar.CompilationUnitCache;
+import org.mule.tools.devkit.sonar.ValidationError;
+import org.mule.tools.devkit.sonar.rule.verifier.java.ConnectorClassScanner;
+import org.mule.tools.devkit.sonar.rule.verifier.java.ConnectorClassVerifier;
+
+import java.util.*;
+
+/**
+ * Java source rules backed by connector class verifiers. All of them are verified together with a single walk over each compilation unit.
+ */
+class ConnectorClassRuleGroup {
+
+    private final List<JavaSourceRule> rules;
+
+    private ConnectorClassRuleGroup(@NonNull final List<JavaSourceRule> rules) {
+        this.rules = rules;
+    }
+
+    static void fuse(@NonNull final Collection<JavaSourceRule> candidates) {
+        final List<JavaSourceRule> rules = new ArrayList<>();
+        candidates.stream().filter(JavaSourceRule::isConnectorClassRule).forEach(rules::add);
+
+        final ConnectorClassRuleGroup group = new ConnectorClassRuleGroup(rules);
+        rules.forEach(rule -> rule.join(group));
+    }
+
+    @NonNull
+    Set<ValidationError> verify(@NonNull final JavaSourceRule rule, final CompilationUnitCache.@NonNull ParsedUnit unit) {
+        final Map<JavaSourceRule, Set<ValidationError>> errorsByRule = unit.memoize(this, () -> scan(unit));
+        return new HashSet<>(errorsByRule.get(rule));
+    }
+
+    @NonNull
+    private Map<JavaSourceRule, Set<ValidationError>> scan(final CompilationUnitCache.@NonNull ParsedUnit unit) {
+
+        // Fresh verifiers for this compilation unit ...
+        final Map<JavaSourceRule, ConnectorClassVerifier> verifiers = new LinkedHashMap<>();
+        rules.forEach(rule -> verifiers.put(rule, (ConnectorClassVerifier) rule.newSourceVisitor()));
+
+        final ConnectorClassScanner scanner = new ConnectorClassScanner(verifiers.values());
+        scanner.scan(unit.getCompilationUnit(), unit.getTrees());
+
+        final Map<JavaSourceRule, Set<ValidationError>> result = new HashMap<>();
+        verifiers.forEach((rule, verifier) -> result.put(rule, verifier.getErrors()));
+        return result;
+    }
+}
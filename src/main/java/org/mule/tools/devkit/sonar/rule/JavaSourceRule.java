@@ -1,42 +1,43 @@
 package org.mule.tools.devkit.sonar.rule;
 
 import com.sun.source.tree.ClassTree;
-import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.tree.ImportTree;
-import com.sun.source.util.JavacTask;
 import com.sun.source.util.TreePathScanner;
 import com.sun.source.util.Trees;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.mule.tools.devkit.sonar.*;
+import org.mule.tools.devkit.sonar.classpath.ClassInfo;
 import org.mule.tools.devkit.sonar.exception.DevKitSonarRuntimeException;
+import org.mule.tools.devkit.sonar.rule.verifier.java.ConnectorClassVerifier;
 import org.mule.tools.devkit.sonar.rule.verifier.java.SourceTreeVerifier;
 
-import javax.tools.JavaCompiler;
-import javax.tools.JavaFileObject;
-import javax.tools.StandardJavaFileManager;
-import javax.tools.ToolProvider;
-import java.io.File;
-import java.io.IOException;
+import java.lang.reflect.Constructor;
 import java.nio.file.Path;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Optional;
-import java.util.Set;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
 
 public class JavaSourceRule extends AbstractRule {
 
     private static final String EXPRESSION_SEPARATOR = ";";
-    private final SourceTreeVerifier sourceVisitor;
+    private final Constructor<? extends SourceTreeVerifier> sourceVisitorConstructor;
     private final Optional<String> acceptAnnotation;
+    private final Optional<Map.Entry<Class<?>, String>> acceptKey;
+    private final Optional<String> acceptSimpleName;
+    private ConnectorClassRuleGroup group;
 
     public JavaSourceRule(@NonNull final Documentation documentation, @NonNull String accept, @NonNull final String assertExp) {
         super(documentation, extractRegPattern(accept));
-        this.acceptAnnotation = extractAnnotation(accept);
+        this.acceptAnnotation = extractAnnotation(accept).map(String::trim);
+        this.acceptKey = acceptAnnotation.map(annotation -> new AbstractMap.SimpleImmutableEntry<>(ClassAnnotatedVerifier.class, annotation));
+        this.acceptSimpleName = acceptAnnotation.map(annotation -> annotation.substring(annotation.lastIndexOf('.') + 1));
 
         try {
             final Class<? extends SourceTreeVerifier> clazz = (Class<? extends SourceTreeVerifier>) Class.forName(assertExp, true, Thread.currentThread().getContextClassLoader());
-            final Documentation doc = this.getDocumentation();
-            this.sourceVisitor = clazz.getConstructor(Rule.Documentation.class).newInstance(doc);
+            this.sourceVisitorConstructor = clazz.getConstructor(Rule.Documentation.class);
+
+            // Fail fast if the visitor can not be instantiated ...
+            this.newSourceVisitor();
 
         } catch (Exception e) {
             throw new DevKitSonarRuntimeException("Visitor could not be loaded:" + assertExp, e);
@@ -50,25 +51,26 @@ public class JavaSourceRule extends AbstractRule {
         boolean result = super.accepts(basePath, childPath);
         if (result && acceptAnnotation.isPresent()) {
             try {
-                final JavacTask task = this.getJavacTask(basePath, childPath);
+                final ContextImpl instance = (ContextImpl) Context.getInstance(basePath);
 
-                Trees trees;
-                final Iterable<? extends CompilationUnitTree> asts = task.parse();
-                trees = Trees.instance(task);
-                // Fire processing ...
-                for (CompilationUnitTree ast : asts) {
+                // Any form of the annotation, imported or qualified, contains its simple name ...
+                final Path sourcePath = basePath.resolve(childPath);
+                if (!instance.getCompilationUnits().mayContain(sourcePath, acceptSimpleName.get())) {
+                    return false;
+                }
+                final CompilationUnitCache.ParsedUnit unit = instance.getCompilationUnits().parse(sourcePath);
 
-                    // Set up in thread local ...
-                    final ContextImpl instance = (ContextImpl) Context.getInstance(basePath);
-                    instance.setup();
+                // Set up in thread local ...
+                instance.setup();
 
-                    // Is valid ?
+                // Is valid ? Rules with the same accept annotation share the answer ...
+                result = unit.memoize(acceptKey.get(), () -> {
                     final ClassAnnotatedVerifier verifier = new ClassAnnotatedVerifier(acceptAnnotation.get());
-                    verifier.scan(ast, trees);
-                    result = verifier.getHasMarched();
-                }
+                    verifier.scan(unit.getCompilationUnit(), unit.getTrees());
+                    return verifier.getHasMarched();
+                });
 
-            } catch (IOException | IllegalArgumentException e) {
+            } catch (IllegalArgumentException e) {
                 throw new DevKitSonarRuntimeException("Expression can not supported '" + acceptAnnotation.get() + "' for file '" + childPath + "'", e);
             }
         }
@@ -77,50 +79,56 @@ public class JavaSourceRule extends AbstractRule {
     }
 
     @Override
-    public @NonNull Set<ValidationError> verify(@NonNull Path basePath, @NonNull Path childPath) throws DevKitSonarRuntimeException {
+    public @NonNull Set<Path> inputs(@NonNull Path basePath, @NonNull Path childPath) {
 
-        final JavacTask task = getJavacTask(basePath, childPath);
+        // Category is taken from the pom, referenced types are resolved from the class path ...
+        return new HashSet<>(Arrays.asList(childPath, Paths.get("pom.xml"), MODULE_CLASS_PATH));
+    }
 
-        Trees trees;
-        final Iterable<? extends CompilationUnitTree> asts;
-        try {
-            asts = task.parse();
-            trees = Trees.instance(task);
-        } catch (IOException e) {
-            throw new DevKitSonarRuntimeException(e);
-        } finally {
-            sourceVisitor.clearErrors();
-        }
+    @Override
+    public @NonNull Set<ValidationError> verify(@NonNull Path basePath, @NonNull Path childPath) throws DevKitSonarRuntimeException {
 
-        // Fire processing ...
-        final Set<ValidationError> result = new HashSet<>();
-        try {
-            for (CompilationUnitTree ast : asts) {
-                // Set up in thread local ...
-                final ContextImpl instance = (ContextImpl) Context.getInstance(basePath);
-                instance.setup();
+        final ContextImpl instance = (ContextImpl) Context.getInstance(basePath);
+        final CompilationUnitCache.ParsedUnit unit = instance.getCompilationUnits().parse(basePath.resolve(childPath));
 
-                sourceVisitor.scan(ast, trees);
-                result.addAll(sourceVisitor.getErrors());
-            }
+        // Set up in thread local ...
+        instance.setup();
 
-        } finally {
-            sourceVisitor.clearErrors();
+        // Connector class verifiers share a single walk over the compilation unit ...
+        if (group != null) {
+            return group.verify(this, unit);
         }
 
-        return result;
+        // Fire processing. Visitors hold state, so every verification uses its own instance ...
+        final SourceTreeVerifier sourceVisitor = newSourceVisitor();
+        sourceVisitor.scan(unit.getCompilationUnit(), unit.getTrees());
+
+        return new HashSet<>(sourceVisitor.getErrors());
     }
 
-    @NonNull
-    private JavacTask getJavacTask(@NonNull Path basePath, @NonNull Path childPath) {
-        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        final StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+    /**
+     * Verifies all the connector class rules in the collection with a single tree walk per compilation unit.
+     */
+    public static void fuse(@NonNull final Collection<Rule> rules) {
+        final List<JavaSourceRule> javaRules = rules.stream().filter(rule -> rule instanceof JavaSourceRule).map(rule -> (JavaSourceRule) rule).collect(Collectors.toList());
+        ConnectorClassRuleGroup.fuse(javaRules);
+    }
 
-        final File file = basePath.resolve(childPath).toFile();
-        final Iterable<? extends JavaFileObject> compilationUnit = fileManager.getJavaFileObjectsFromFiles(Collections.singletonList(file));
+    boolean isConnectorClassRule() {
+        return ConnectorClassVerifier.class.isAssignableFrom(sourceVisitorConstructor.getDeclaringClass());
+    }
+
+    void join(@NonNull final ConnectorClassRuleGroup group) {
+        this.group = group;
+    }
 
-        // Create the compilation task
-        return (JavacTask) compiler.getTask(null, fileManager, null, null, null, compilationUnit);
+    @NonNull
+    SourceTreeVerifier newSourceVisitor() {
+        try {
+            return sourceVisitorConstructor.newInstance(this.getDocumentation());
+        } catch (ReflectiveOperationException e) {
+            throw new DevKitSonarRuntimeException("Visitor could not be created:" + sourceVisitorConstructor.getDeclaringClass().getName(), e);
+        }
     }
 
     @NonNull
@@ -160,7 +168,7 @@ public class JavaSourceRule extends AbstractRule {
         @Override
         public Object visitClass(final @NonNull ClassTree classTree, @NonNull final Trees trees) {
 
-            final Optional<Class<?>> annotation = ClassParserUtils.classForName(annotationExpression, imports);
+            final Optional<ClassInfo> annotation = ClassParserUtils.classForName(annotationExpression, imports);
             if (!annotation.isPresent()) {
                 throw new DevKitSonarRuntimeException("Class '" + annotationExpression + "' could not be found. Please, review the accept expression.");
             }
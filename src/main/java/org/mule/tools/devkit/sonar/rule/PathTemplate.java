@@ -0,0 +1,125 @@
+package org.mule.tools.devkit.sonar.rule;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.regex.qual.Regex;
+import org.mule.tools.devkit.sonar.ClassProperty;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Path expression compiled into literal segments and '${variable}' slots. Paths are rendered for every combination of the variable values,
+ * one at a time, so the cartesian product is never built.
+ */
+final class PathTemplate {
+
+    @Regex
+    private static final String VARIABLE = "\\$\\{([^${}]+)}";
+    private static final Pattern VARIABLE_PATTERN = Pattern.compile(VARIABLE);
+
+    // Literals surround the slots, there is always one more literal than slots ...
+    private final String[] literals;
+    private final int[] slots;
+    private final List<ClassProperty> variables;
+
+    private PathTemplate(@NonNull final String[] literals, @NonNull final int[] slots, @NonNull final List<ClassProperty> variables) {
+        this.literals = literals;
+        this.slots = slots;
+        this.variables = variables;
+    }
+
+    @NonNull
+    static PathTemplate compile(@NonNull final String expression) {
+        final List<String> literals = new ArrayList<>();
+        final List<Integer> slots = new ArrayList<>();
+        final List<ClassProperty> variables = new ArrayList<>();
+
+        final Matcher matcher = VARIABLE_PATTERN.matcher(expression);
+        int start = 0;
+        while (matcher.find()) {
+            literals.add(expression.substring(start, matcher.start()));
+
+            // A variable used twice takes the same value in both slots ...
+            final ClassProperty property = ClassProperty.to(matcher.group(1));
+            if (!variables.contains(property)) {
+                variables.add(property);
+            }
+            slots.add(variables.indexOf(property));
+            start = matcher.end();
+        }
+        literals.add(expression.substring(start));
+
+        return new PathTemplate(literals.toArray(new String[literals.size()]), slots.stream().mapToInt(Integer::intValue).toArray(),
+                Collections.unmodifiableList(variables));
+    }
+
+    /**
+     * Distinct variables in order of appearance.
+     */
+    @NonNull
+    List<ClassProperty> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Paths for every combination of values, given in the order of {@link #getVariables()}. The first variable changes slowest.
+     */
+    @NonNull
+    Iterator<String> expand(@NonNull final List<List<String>> values) {
+        final StringBuilder builder = new StringBuilder();
+        return new Combinations<String>(values) {
+
+            @Override
+            String current(@NonNull final List<List<String>> values, @NonNull final int[] indexes) {
+                builder.setLength(0);
+                for (int i = 0; i < slots.length; i++) {
+                    builder.append(literals[i]).append(values.get(slots[i]).get(indexes[slots[i]]));
+                }
+                return builder.append(literals[slots.length]).toString();
+            }
+        };
+    }
+
+    /**
+     * Lazy cartesian product of the lists. Empty if any of the lists is, a single empty combination if there are no lists.
+     */
+    abstract static class Combinations<T> implements Iterator<T> {
+
+        private final List<List<String>> values;
+        private final int[] indexes;
+        private boolean hasNext;
+
+        Combinations(@NonNull final List<List<String>> values) {
+            this.values = values;
+            this.indexes = new int[values.size()];
+            this.hasNext = values.stream().noneMatch(List::isEmpty);
+        }
+
+        abstract T current(@NonNull final List<List<String>> values, @NonNull final int[] indexes);
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            final T result = current(values, indexes);
+
+            // Advance like an odometer, last list first ...
+            hasNext = false;
+            for (int i = indexes.length - 1; i >= 0 && !hasNext; i--) {
+                if (++indexes[i] < values.get(i).size()) {
+                    hasNext = true;
+                } else {
+                    indexes[i] = 0;
+                }
+            }
+            return result;
+        }
+    }
+}
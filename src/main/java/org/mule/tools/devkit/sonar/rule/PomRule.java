@@ -1,41 +1,112 @@
 package org.mule.tools.devkit.sonar.rule;
 
-import org.apache.commons.lang.StringUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.mule.tools.devkit.sonar.Context;
+import org.mule.tools.devkit.sonar.ContextImpl;
+import org.mule.tools.devkit.sonar.PomSession;
 import org.mule.tools.devkit.sonar.Rule;
 import org.mule.tools.devkit.sonar.ValidationError;
-import org.mule.tools.devkit.sonar.XmlUtils;
 import org.mule.tools.devkit.sonar.exception.DevKitSonarRuntimeException;
 
 import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.Optional;
 import java.util.Set;
 
 public class PomRule extends AbstractRule {
 
-    private final String acceptXPath;
+    private static final String NOT_FUNCTION = "not";
+
     private final String assertExp;
+    private final Optional<String> acceptExp;
+    private final Optional<XPathExpression> acceptExpression;
+    private final boolean acceptNegated;
+    private final XPathExpression assertExpression;
 
     public PomRule(final Rule.Documentation documentation, @NonNull String accept, @Nullable final String assertExp) {
         super(documentation, "pom.xml$");
-        this.acceptXPath = accept;
         this.assertExp = assertExp;
+
+        // Complementary accept expressions, 'X' and 'not(X)', share a single evaluation ...
+        boolean negated = false;
+        Optional<String> acceptExp = StringUtils.isBlank(accept) ? Optional.empty() : Optional.of(accept.trim());
+        Optional<String> operand = acceptExp.flatMap(PomRule::notOperand);
+        while (operand.isPresent()) {
+            negated = !negated;
+            acceptExp = operand;
+            operand = notOperand(operand.get());
+        }
+        this.acceptExp = acceptExp;
+        this.acceptNegated = negated;
+
+        // Compile expressions ...
+        this.acceptExpression = acceptExp.map(PomSession::compile);
+        this.assertExpression = PomSession.compile(assertExp);
     }
 
     @Override
     public boolean accepts(@NonNull final Path basePath, @NonNull final Path childPath) {
         boolean result = super.accepts(basePath, childPath);
-        if (!StringUtils.isBlank(acceptXPath) && result) {
-            result = (boolean) XmlUtils.evalXPathOnPom(basePath, acceptXPath, XPathConstants.BOOLEAN);
+        if (acceptExpression.isPresent() && result) {
+            result = pomSession(basePath).test(acceptExp.get(), acceptExpression.get()) != acceptNegated;
         }
         return result;
     }
 
+    @Override
+    public @NonNull Set<Path> inputs(@NonNull final Path basePath, @NonNull final Path childPath) {
+        return Collections.singleton(Paths.get("pom.xml"));
+    }
+
     @Override
     public @NonNull Set<ValidationError> verify(@NonNull Path basePath, @NonNull Path childPath) throws DevKitSonarRuntimeException {
-        final boolean result = (boolean) XmlUtils.evalXPathOnPom(basePath, assertExp, XPathConstants.BOOLEAN);
+        final boolean result = (boolean) pomSession(basePath).evaluate(assertExpression, XPathConstants.BOOLEAN);
         return result ? Collections.emptySet() : Collections.singleton(ValidationError.create(this.getDocumentation(), "Expressions could not be satisfied '" + assertExp + "'."));
     }
+
+    @NonNull
+    private static PomSession pomSession(@NonNull final Path basePath) {
+        return ((ContextImpl) Context.getInstance(basePath)).getPomSession();
+    }
+
+    /**
+     * Argument of the expression if the whole expression is a call to 'not', e.g. 'X' for 'not(X)' or 'not (X)'.
+     */
+    @NonNull
+    public static Optional<String> notOperand(@NonNull final String expression) {
+        if (!expression.startsWith(NOT_FUNCTION) || !expression.endsWith(")")) {
+            return Optional.empty();
+        }
+
+        // Whitespace is allowed before the argument list ...
+        int start = NOT_FUNCTION.length();
+        while (start < expression.length() && Character.isWhitespace(expression.charAt(start))) {
+            start++;
+        }
+        if (start == expression.length() || expression.charAt(start) != '(') {
+            return Optional.empty();
+        }
+
+        // The parenthesis opened by 'not' must be the last one closed, quoted text is skipped ...
+        int depth = 0;
+        char quote = 0;
+        for (int i = start; i < expression.length(); i++) {
+            final char c = expression.charAt(i);
+            if (quote != 0) {
+                quote = c == quote ? 0 : quote;
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0 && i != expression.length() - 1) {
+                return Optional.empty();
+            }
+        }
+        return depth == 0 ? Optional.of(expression.substring(start + 1, expression.length() - 1).trim()) : Optional.empty();
+    }
 }
@@ -0,0 +1,144 @@
+package org.mule.tools.devkit.sonar.rule;
+
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.tools.devkit.sonar.Rule;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Rules indexed by their accept expression, so a path is classified once and only the rules that could accept it are applied.
+ * <p>
+ * Accept expressions are literal paths, expressions ending with a literal suffix or any other expression. Literal paths are looked up in a table,
+ * suffixes in a reversed trie and the remaining expressions are matched at once with a single combined expression. Candidates must still be
+ * checked with {@link Rule#accepts(Path, Path)}, the index never drops a rule that would accept the path.
+ */
+public class RuleDispatchIndex {
+
+    // Escapes whose construct goes on after the escaped character, e.g. '\x2e' or '\p{Alpha}' ...
+    private static final String LONG_ESCAPES = "xu0cpPkNQ";
+
+    private final Map<String, List<Rule>> exactRules = new HashMap<>();
+    private final SuffixNode suffixRules = new SuffixNode();
+    private final List<Rule> patternRules = new ArrayList<>();
+    private final List<Rule> otherRules = new ArrayList<>();
+    private Optional<Pattern> combinedPattern = Optional.empty();
+
+    private RuleDispatchIndex() {
+
+    }
+
+    @NonNull
+    public static RuleDispatchIndex compile(@NonNull final Collection<Rule> rules) {
+        final RuleDispatchIndex result = new RuleDispatchIndex();
+        final List<String> patterns = new ArrayList<>();
+
+        for (Rule rule : rules) {
+            if (!(rule instanceof AbstractRule)) {
+                // Nothing is known about what the rule accepts ...
+                result.otherRules.add(rule);
+                continue;
+            }
+
+            final String regex = ((AbstractRule) rule).getAcceptPattern().pattern();
+            final List<Character> tokens = tokenize(regex);
+            if (!tokens.contains(null)) {
+                result.exactRules.computeIfAbsent(toString(tokens), key -> new ArrayList<>()).add(rule);
+                continue;
+            }
+
+            final String suffix = regex.contains("|") || regex.contains("(?") ? "" : toString(tokens.subList(tokens.lastIndexOf(null) + 1, tokens.size()));
+            if (!suffix.isEmpty()) {
+                result.suffixRules.add(suffix, rule);
+            } else if (regex.matches(".*\\\\[1-9].*")) {
+                // Back references can not be combined with other expressions ...
+                result.otherRules.add(rule);
+            } else {
+                result.patternRules.add(rule);
+                patterns.add(regex);
+            }
+        }
+
+        if (!patterns.isEmpty()) {
+            result.combinedPattern = Optional.of(Pattern.compile(patterns.stream().map(exp -> "(?:" + exp + ")").collect(Collectors.joining("|"))));
+        }
+        return result;
+    }
+
+    /**
+     * Rules that could accept the path, in no particular order.
+     */
+    @NonNull
+    public List<Rule> candidates(@NonNull final Path childPath) {
+        final String pathStr = childPath.toFile().toString();
+
+        final List<Rule> result = new ArrayList<>(otherRules);
+        result.addAll(exactRules.getOrDefault(pathStr, Collections.emptyList()));
+        suffixRules.collect(pathStr, result);
+        if (combinedPattern.isPresent() && combinedPattern.get().matcher(pathStr).matches()) {
+            result.addAll(patternRules);
+        }
+        return result;
+    }
+
+    /**
+     * Splits the expression into characters matching themselves and null for any other construct. Leading '^' and trailing '$' are dropped as
+     * accept expressions always match the whole path. An escape such as '\x2e' or '\cJ' can not be told apart from the literals following it,
+     * so the whole expression is a single construct.
+     */
+    @NonNull
+    private static List<Character> tokenize(@NonNull final String regex) {
+        final List<Character> result = new ArrayList<>();
+        int start = regex.startsWith("^") ? 1 : 0;
+        int end = regex.endsWith("$") && !regex.endsWith("\\$") ? regex.length() - 1 : regex.length();
+
+        for (int i = start; i < end; i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\' && i + 1 < end) {
+                final char escaped = regex.charAt(++i);
+                if (LONG_ESCAPES.indexOf(escaped) != -1) {
+                    return Collections.singletonList(null);
+                }
+                result.add(Character.isLetterOrDigit(escaped) ? null : escaped);
+            } else if ("[](){}.*+?|^$\\".indexOf(c) != -1) {
+                result.add(null);
+            } else {
+                result.add(c);
+            }
+        }
+        return result;
+    }
+
+    @NonNull
+    private static String toString(@NonNull final List<Character> literals) {
+        final StringBuilder result = new StringBuilder();
+        literals.forEach(result::append);
+        return result.toString();
+    }
+
+    private static class SuffixNode {
+
+        private final Map<Character, SuffixNode> children = new HashMap<>();
+        private final List<Rule> rules = new ArrayList<>();
+
+        void add(@NonNull final String suffix, @NonNull final Rule rule) {
+            SuffixNode node = this;
+            for (int i = suffix.length() - 1; i >= 0; i--) {
+                node = node.children.computeIfAbsent(suffix.charAt(i), key -> new SuffixNode());
+            }
+            node.rules.add(rule);
+        }
+
+        void collect(@NonNull final String path, @NonNull final List<Rule> result) {
+            SuffixNode node = this;
+            for (int i = path.length() - 1; i >= 0 && node != null; i--) {
+                node = node.children.get(path.charAt(i));
+                if (node != null) {
+                    result.addAll(node.rules);
+                }
+            }
+        }
+    }
+}
@@ -28,17 +28,17 @@ public class XmlRule extends AbstractRule {
     private final XPathExpression xpathExpression;
     final private static Logger logger = LoggerFactory.getLogger(AbstractRule.class);
 
-    private final static DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
-    private static DocumentBuilder builder = null;
-
-    static {
+    // DocumentBuilder instances are not thread safe. Keep one per thread ...
+    private final static ThreadLocal<DocumentBuilder> builder = ThreadLocal.withInitial(() -> {
+        final DocumentBuilderFactory domFactory = DocumentBuilderFactory.newInstance();
+        domFactory.setNamespaceAware(true);
         try {
-            domFactory.setNamespaceAware(true);
-            builder = domFactory.newDocumentBuilder();
+            return domFactory.newDocumentBuilder();
         } catch (ParserConfigurationException e) {
             logger.error(e.getMessage(), e);
+            throw new DevKitSonarRuntimeException(e);
         }
-    }
+    });
 
     private final String assertExp;
 
@@ -73,8 +73,12 @@ public class XmlRule extends AbstractRule {
         boolean success;
         try {
             final InputStream is = Files.newInputStream(basePath.resolve(childPath));
-            final Document xmlDocument = builder.parse(is);
-            success = (Boolean) xpathExpression.evaluate(xmlDocument, XPathConstants.BOOLEAN);
+            final Document xmlDocument = builder.get().parse(is);
+
+            // Compiled expressions are not thread safe ...
+            synchronized (xpathExpression) {
+                success = (Boolean) xpathExpression.evaluate(xmlDocument, XPathConstants.BOOLEAN);
+            }
 
         } catch (SAXException | XPathExpressionException | IOException e) {
             throw new DevKitSonarRuntimeException(e);
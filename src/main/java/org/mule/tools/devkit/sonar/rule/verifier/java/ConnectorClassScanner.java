@@ -0,0 +1,73 @@
+package org.mule.tools.devkit.sonar.rule.verifier.java;
+
+import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ImportTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.Trees;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.mule.api.annotations.Processor;
+import org.mule.api.annotations.Source;
+import org.mule.tools.devkit.sonar.ClassParserUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Walks a compilation unit once and dispatches the connector callbacks to every registered verifier. Each verifier keeps its own errors.
+ */
+public class ConnectorClassScanner extends TreePathScanner<Object, Trees> {
+
+    private final List<ConnectorClassVerifier> verifiers;
+    private final Set<ImportTree> imports = new HashSet<>();
+
+    public ConnectorClassScanner(@NonNull final Collection<? extends ConnectorClassVerifier> verifiers) {
+        this.verifiers = new ArrayList<>(verifiers);
+        this.verifiers.forEach(verifier -> verifier.shareImports(imports));
+    }
+
+    @Override
+    public Object visitCompilationUnit(CompilationUnitTree node, Trees trees) {
+
+        verifiers.forEach(verifier -> verifier.enterCompilationUnit(node));
+        return super.visitCompilationUnit(node, trees);
+    }
+
+    @Override
+    public Object visitImport(ImportTree node, Trees trees) {
+
+        imports.add(node);
+        return super.visitImport(node, trees);
+    }
+
+    @Override
+    public Object visitClass(@NonNull ClassTree classTree, @NonNull Trees trees) {
+        Object result = null;
+
+        // Process if it's a connector class ...
+        if (ConnectorClassVerifier.isConnector(classTree)) {
+            verifiers.forEach(verifier -> verifier.verifyConnector(classTree, trees));
+            result = super.visitClass(classTree, trees);
+        }
+        return result;
+    }
+
+    @Override
+    public Object visitMethod(@NonNull final MethodTree methodTree, Trees trees) {
+        final List<? extends AnnotationTree> annotations = methodTree.getModifiers().getAnnotations();
+
+        verifiers.forEach(verifier -> verifier.verifyMethod(methodTree));
+        if (ClassParserUtils.contains(annotations, Processor.class)) {
+            verifiers.forEach(verifier -> verifier.verifyProcessor(methodTree, methodTree.getParameters()));
+        } else if (ClassParserUtils.contains(annotations, Source.class)) {
+            verifiers.forEach(verifier -> verifier.verifySource(methodTree, methodTree.getParameters()));
+        }
+        return super.visitMethod(methodTree, trees);
+    }
+
+}
@@ -14,7 +14,7 @@ import org.mule.tools.devkit.sonar.Rule;
 
 import java.util.List;
 
-abstract class ConnectorClassVerifier extends SourceTreeVerifier {
+abstract public class ConnectorClassVerifier extends SourceTreeVerifier {
 
     public ConnectorClassVerifier(Rule.@NonNull Documentation doc) {
         super(doc);
@@ -26,7 +26,7 @@ abstract class ConnectorClassVerifier extends SourceTreeVerifier {
         Object result = null;
 
         // Process if it's a connector class ...
-        if (ClassParserUtils.contains(classTree.getModifiers().getAnnotations(), Connector.class)) {
+        if (isConnector(classTree)) {
             this.verifyConnector(classTree, trees);
             result = super.visitClass(classTree, trees);
         }
@@ -38,6 +38,7 @@ abstract class ConnectorClassVerifier extends SourceTreeVerifier {
     final public Object visitMethod(@NonNull final MethodTree methodTree, Trees trees) {
         final List<? extends AnnotationTree> annotations = methodTree.getModifiers().getAnnotations();
 
+        this.verifyMethod(methodTree);
         if (ClassParserUtils.contains(annotations, Processor.class)) {
             this.verifyProcessor(methodTree, methodTree.getParameters());
         } else if (ClassParserUtils.contains(annotations, Source.class)) {
@@ -46,6 +47,13 @@ abstract class ConnectorClassVerifier extends SourceTreeVerifier {
         return super.visitMethod(methodTree, trees);
     }
 
+    static boolean isConnector(@NonNull ClassTree classTree) {
+        return ClassParserUtils.contains(classTree.getModifiers().getAnnotations(), Connector.class);
+    }
+
+    protected void verifyMethod(@NonNull MethodTree method) {
+    }
+
     protected void verifySource(@NonNull MethodTree method, @NonNull final List<? extends VariableTree> parameters) {
     }
 
@@ -1,16 +1,16 @@
 package org.mule.tools.devkit.sonar.rule.verifier.java;
 
-import com.sun.source.tree.ImportTree;
 import com.sun.source.tree.MethodTree;
 import com.sun.source.tree.VariableTree;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.mule.tools.devkit.sonar.ClassParserUtils;
+import org.mule.tools.devkit.sonar.ImportScope;
 import org.mule.tools.devkit.sonar.Rule;
+import org.mule.tools.devkit.sonar.classpath.ClassInfo;
 
 import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 public class DefaultPayloadVerifier extends ConnectorClassVerifier {
 
@@ -25,8 +25,8 @@ public class DefaultPayloadVerifier extends ConnectorClassVerifier {
         final boolean hasDefaultPayload = parameters.stream().anyMatch(ClassParserUtils::isMarkedAsPayloadDefault);
 
         // Simple types can be rendered nicely by Studio
-        Set<ImportTree> imports = getImports();
-        boolean isSimpleTypes = parameters.stream().allMatch(t -> ClassParserUtils.isSimpleType(t, imports));
+        final ImportScope scope = getImportScope();
+        boolean isSimpleTypes = parameters.stream().allMatch(t -> ClassParserUtils.isSimpleType(t, scope));
         if (!isSimpleTypes) {
 
             final String processorName = methodTree.getName().toString();
@@ -38,7 +38,7 @@ public class DefaultPayloadVerifier extends ConnectorClassVerifier {
                 final Optional<? extends VariableTree> inputStreamParam = parameters
                         .stream()
                         .filter(p -> {
-                            final Optional<Class<?>> paramClass = ClassParserUtils.classForName(p.getType(), getImports());
+                            final Optional<ClassInfo> paramClass = ClassParserUtils.classForName(p.getType(), scope);
 
                             // I don't have warranty that the classes has been loaded in the classpath. Assume that the suffix could help to detect if it's an input stream ..
                             return (!paramClass.isPresent() && p.getType().toString().endsWith("InputStream"))
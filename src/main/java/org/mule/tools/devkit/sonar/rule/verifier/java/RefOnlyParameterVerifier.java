@@ -19,7 +19,7 @@ public class RefOnlyParameterVerifier extends ConnectorClassVerifier {
     protected void verifyProcessor(@NonNull MethodTree method, @NonNull final List<? extends VariableTree> params) {
 
         // Filter complex types ...
-        final Stream<? extends VariableTree> nonSimpleTypes = params.stream().filter(param -> !ClassParserUtils.isSimpleType(param, getImports()));
+        final Stream<? extends VariableTree> nonSimpleTypes = params.stream().filter(param -> !ClassParserUtils.isSimpleType(param, getImportScope()));
 
         // Filter the types with without @RefOnly ...
         final Stream<? extends VariableTree> complexParams = nonSimpleTypes.filter(param -> !ClassParserUtils.isMarkedAsRefOnly(param)
@@ -1,15 +1,18 @@
 package org.mule.tools.devkit.sonar.rule.verifier.java;
 
 import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
 import com.sun.source.tree.ImportTree;
 import com.sun.source.tree.MethodTree;
 import com.sun.source.util.TreePathScanner;
 import com.sun.source.util.Trees;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.mule.tools.devkit.sonar.ImportScope;
 import org.mule.tools.devkit.sonar.Rule;
 import org.mule.tools.devkit.sonar.ValidationError;
 
+import java.util.Collections;
 import java.util.Formatter;
 import java.util.HashSet;
 import java.util.Set;
@@ -17,13 +20,21 @@ import java.util.Set;
 abstract public class SourceTreeVerifier extends TreePathScanner<Object, Trees> {
 
     final private Set<ValidationError> errors = new HashSet<>();
-    final private Set<ImportTree> imports = new HashSet<>();
+    private Set<ImportTree> imports = new HashSet<>();
+    private ImportScope importScope = ImportScope.of(Collections.emptySet());
     private final Rule.Documentation doc;
 
     SourceTreeVerifier(final Rule.@NonNull Documentation doc) {
         this.doc = doc;
     }
 
+    @Override
+    public Object visitCompilationUnit(CompilationUnitTree node, Trees trees) {
+
+        enterCompilationUnit(node);
+        return super.visitCompilationUnit(node, trees);
+    }
+
     @Override
     public Object visitImport(ImportTree node, Trees trees) {
 
@@ -63,4 +74,20 @@ abstract public class SourceTreeVerifier extends TreePathScanner<Object, Trees>
     protected Set<ImportTree> getImports() {
         return imports;
     }
+
+    void shareImports(@NonNull final Set<ImportTree> imports) {
+        this.imports = imports;
+    }
+
+    /**
+     * Types are resolved through the imports of the compilation unit, resolutions are shared by all the verifiers.
+     */
+    @NonNull
+    protected ImportScope getImportScope() {
+        return importScope;
+    }
+
+    void enterCompilationUnit(@NonNull final CompilationUnitTree compilationUnit) {
+        this.importScope = ImportScope.of(compilationUnit);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package org.mule.tools.devkit.sonar.test;
+
+import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.util.TreeScanner;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.api.annotations.Processor;
+import org.mule.api.annotations.param.Default;
+import org.mule.tools.devkit.sonar.ClassParserUtils;
+import org.mule.tools.devkit.sonar.CompilationUnitCache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AnnotationMatcherTest {
+
+    private static final String SOURCE = "package org.sample;\n\n"
+            + "import org.mule.api.annotations.Processor;\n"
+            + "import org.mule.api.annotations.param.Default;\n\n"
+            + "public class Sample {\n"
+            + "    @Processor public void simple(@Default(\"#[payload]\") Object a) {}\n"
+            + "    @org.mule.api.annotations.Processor public void qualified(@org.mule.api.annotations.param.Default(value = \"#[payload]\") Object a) {}\n"
+            + "    @annotations.Processor public void partial(@Default(value = \"#[header:id]\") Object a) {}\n"
+            + "    @com.other.Processor public void other(@Default(other = \"#[payload]\") Object a) {}\n"
+            + "    @Deprecated public void arguments(@Default(value = \"#[payload]\", other = \"\") Object a) {}\n"
+            + "}\n";
+
+    @org.junit.Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSimpleAndQualifiedNames() throws IOException {
+        final Map<String, MethodTree> methods = parse();
+
+        assertTrue(ClassParserUtils.is(annotation(methods.get("simple")), Processor.class));
+        assertTrue(ClassParserUtils.is(annotation(methods.get("qualified")), Processor.class));
+        assertTrue(ClassParserUtils.isDefaultAnnotation(parameterAnnotation(methods.get("qualified"))));
+
+        // Partially qualified or qualified with another package ...
+        assertFalse(ClassParserUtils.is(annotation(methods.get("partial")), Processor.class));
+        assertFalse(ClassParserUtils.is(annotation(methods.get("other")), Processor.class));
+        assertFalse(ClassParserUtils.is(annotation(methods.get("arguments")), Processor.class));
+        assertTrue(ClassParserUtils.is(annotation(methods.get("arguments")), Deprecated.class));
+    }
+
+    @Test
+    public void testDefaultPayloadValue() throws IOException {
+        final Map<String, MethodTree> methods = parse();
+
+        assertTrue(ClassParserUtils.isDefaultPayloadAnnotation(parameterAnnotation(methods.get("simple"))));
+        assertTrue(ClassParserUtils.isDefaultPayloadAnnotation(parameterAnnotation(methods.get("qualified"))));
+        assertFalse(ClassParserUtils.isDefaultPayloadAnnotation(parameterAnnotation(methods.get("partial"))));
+        assertFalse(ClassParserUtils.isDefaultPayloadAnnotation(parameterAnnotation(methods.get("other"))));
+        assertFalse(ClassParserUtils.isDefaultPayloadAnnotation(parameterAnnotation(methods.get("arguments"))));
+        assertTrue(ClassParserUtils.is(parameterAnnotation(methods.get("arguments")), Default.class));
+    }
+
+    private Map<String, MethodTree> parse() throws IOException {
+        final Path sourcePath = folder.getRoot().toPath().resolve("Sample.java");
+        Files.write(sourcePath, SOURCE.getBytes(StandardCharsets.UTF_8));
+
+        final Map<String, MethodTree> result = new HashMap<>();
+        try (final CompilationUnitCache units = new CompilationUnitCache()) {
+            new TreeScanner<Void, Void>() {
+
+                @Override
+                public Void visitMethod(final MethodTree method, final Void aVoid) {
+                    result.put(method.getName().toString(), method);
+                    return super.visitMethod(method, aVoid);
+                }
+            }.scan(units.parse(sourcePath).getCompilationUnit(), null);
+        }
+        return result;
+    }
+
+    private static AnnotationTree annotation(final MethodTree method) {
+        return method.getModifiers().getAnnotations().get(0);
+    }
+
+    private static AnnotationTree parameterAnnotation(final MethodTree method) {
+        return method.getParameters().get(0).getModifiers().getAnnotations().get(0);
+    }
+}
@@ -0,0 +1,73 @@
+package org.mule.tools.devkit.sonar.test;
+
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.tools.devkit.sonar.BatchValidator;
+import org.mule.tools.devkit.sonar.ConnectorModuleValidator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BatchValidatorTest {
+
+    @org.junit.Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testModulesAreFoundUnderRootDirectory() throws IOException {
+        final Path root = folder.getRoot().toPath();
+        final Path first = createModule(root.resolve("first"));
+        final Path second = createModule(root.resolve("connectors/second"));
+        createModule(root.resolve("first/examples/nested"));
+        createModule(root.resolve(".git/copy"));
+        createModule(root.resolve("connectors/target/copy"));
+        Files.createDirectories(root.resolve("docs/src/main/java"));
+
+        assertEquals(new HashSet<>(Arrays.asList(first, second)), new HashSet<>(BatchValidator.resolveModules(Collections.singletonList(root.toString()))));
+    }
+
+    @Test
+    public void testModulesAreReadFromFile() throws IOException {
+        final Path root = folder.getRoot().toPath();
+        final Path first = createModule(root.resolve("first"));
+        final Path second = createModule(root.resolve("second"));
+        final Path modulesFile = root.resolve("modules.txt");
+        Files.write(modulesFile, Arrays.asList("# Certified connectors", second.toString(), "", "  " + first + "  ", second.toString()));
+
+        // Listed order is kept and duplicates are dropped ...
+        assertEquals(Arrays.asList(second, first), BatchValidator.resolveModules(Collections.singletonList("@" + modulesFile)));
+    }
+
+    @Test
+    public void testModuleArgumentsAreKept() throws IOException {
+        final Path root = folder.getRoot().toPath();
+        final Path first = createModule(root.resolve("first"));
+        final Path second = createModule(root.resolve("second"));
+
+        assertEquals(Arrays.asList(second, first), BatchValidator.resolveModules(Arrays.asList(second.toString(), first.toString(), second.toString())));
+    }
+
+    @Test
+    public void testFailedModuleDoesNotStopBatch() throws IOException {
+        final Path missing = folder.getRoot().toPath().resolve("missing");
+        final List<Path> modules = Arrays.asList(missing, TestData.noCompliantTestPath());
+        final Map<Path, BatchValidator.ModuleResult> results = new BatchValidator(ConnectorModuleValidator.create(), 2).execute(modules);
+
+        assertEquals(modules, new ArrayList<>(results.keySet()));
+        assertTrue(results.get(missing).getFailure().isPresent());
+        assertFalse(results.get(TestData.noCompliantTestPath()).getFailure().isPresent());
+        assertFalse(results.get(TestData.noCompliantTestPath()).getErrors().isEmpty());
+    }
+
+    private static Path createModule(final Path modulePath) throws IOException {
+        Files.createDirectories(modulePath.resolve("src/main/java"));
+        Files.createFile(modulePath.resolve("pom.xml"));
+        return modulePath;
+    }
+}
@@ -0,0 +1,106 @@
+package org.mule.tools.devkit.sonar.test;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.tools.devkit.sonar.classpath.ClassIndex;
+import org.mule.tools.devkit.sonar.classpath.ClassInfo;
+import org.mule.tools.devkit.sonar.classpath.JarIndex;
+
+import java.io.*;
+import java.lang.annotation.Retention;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ClassInfoTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testHeadersMatchReflection() throws IOException {
+        for (Class<?> type : Arrays.asList(TimeUnit.class, Runnable.class, FileInputStream.class, Retention.class, Map.Entry.class, Object.class)) {
+            final ClassInfo info = read(type);
+
+            assertEquals(type.getName(), info.getName());
+            assertEquals(type.getCanonicalName(), info.getCanonicalName());
+            assertEquals(type.getName(), type.isEnum(), info.isEnum());
+            assertEquals(type.getName(), type.isInterface(), info.isInterface());
+            assertEquals(type.getName(), type.isAnnotation(), info.isAnnotation());
+            assertEquals(Arrays.stream(type.getInterfaces()).map(Class::getName).collect(Collectors.toList()), info.getInterfaces());
+
+            // Interfaces extend Object in the class file ...
+            final Optional<String> superName = type.isInterface() ? Optional.of(Object.class.getName()) : Optional.ofNullable(type.getSuperclass()).map(Class::getName);
+            assertEquals(type.getName(), superName, info.getSuperName());
+        }
+    }
+
+    @Test
+    public void testIsAssignableFromMatchesReflection() throws IOException {
+        final List<Class<?>> types = Arrays.asList(InputStream.class, FileInputStream.class, Closeable.class, AutoCloseable.class, Enum.class, TimeUnit.class,
+                Comparable.class, Runnable.class, Thread.class, Object.class);
+        for (Class<?> type : types) {
+            final ClassInfo info = read(type);
+            for (Class<?> other : types) {
+                assertEquals(type.getName() + " <- " + other.getName(), type.isAssignableFrom(other), info.isAssignableFrom(other));
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidClassFile() throws IOException {
+        ClassInfo.read(new ByteArrayInputStream(new byte[] { 0, 1, 2, 3 }));
+    }
+
+    @Test
+    public void testFirstJarDeclaringClassWins() throws IOException {
+        final Path first = createJar("first.jar", Runnable.class);
+        final Path second = createJar("second.jar", TimeUnit.class);
+        final JarIndex jarIndex = JarIndex.load(folder.getRoot().toPath().resolve("jar-index.bin"));
+
+        try (final ClassIndex index = new ClassIndex(new URL[] { first.toUri().toURL(), second.toUri().toURL() }, ClassLoader.getSystemClassLoader(),
+                jarIndex)) {
+
+            // Both jars declare the class, the first one holds the Runnable header ...
+            assertTrue(index.find("org.sample.Task").get().isInterface());
+            assertFalse(index.find("org.sample.Missing").isPresent());
+            assertTrue(index.find(TimeUnit.class.getName()).get().isEnum());
+        }
+    }
+
+    private Path createJar(final String name, final Class<?> content) throws IOException {
+        final Path result = folder.getRoot().toPath().resolve(name);
+        try (final OutputStream os = Files.newOutputStream(result); final ZipOutputStream zip = new ZipOutputStream(os)) {
+            zip.putNextEntry(new ZipEntry("org/sample/Task.class"));
+            try (final InputStream is = classFile(content)) {
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = is.read(buffer)) != -1) {
+                    zip.write(buffer, 0, read);
+                }
+            }
+            zip.closeEntry();
+        }
+        return result;
+    }
+
+    private static ClassInfo read(final Class<?> type) throws IOException {
+        try (final InputStream is = classFile(type)) {
+            return ClassInfo.read(is);
+        }
+    }
+
+    private static InputStream classFile(final Class<?> type) {
+        return ClassLoader.getSystemResourceAsStream(type.getName().replace('.', '/') + ".class");
+    }
+}
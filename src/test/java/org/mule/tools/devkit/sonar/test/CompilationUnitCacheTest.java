@@ -0,0 +1,129 @@
+package org.mule.tools.devkit.sonar.test;
+
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.tools.devkit.sonar.CompilationUnitCache;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompilationUnitCacheTest {
+
+    @org.junit.Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSourceIsParsedOnce() throws IOException {
+        final Path sourcePath = createSource("Sample");
+        try (final CompilationUnitCache units = new CompilationUnitCache()) {
+            final CompilationUnitCache.ParsedUnit unit = units.parse(sourcePath);
+            assertSame(unit, units.parse(sourcePath));
+            assertSame(unit, units.parse(sourcePath.getParent().resolve("./Sample.java")));
+
+            // Derived values are computed once per unit ...
+            final AtomicInteger calls = new AtomicInteger();
+            assertEquals("Sample", unit.memoize("name", () -> {
+                calls.incrementAndGet();
+                return "Sample";
+            }));
+            assertEquals("Sample", units.parse(sourcePath).memoize("name", () -> {
+                calls.incrementAndGet();
+                return "Other";
+            }));
+            assertEquals(1, calls.get());
+        }
+    }
+
+    @Test
+    public void testModifiedSourceIsParsedAgain() throws IOException {
+        final Path sourcePath = createSource("Sample");
+        try (final CompilationUnitCache units = new CompilationUnitCache()) {
+            final CompilationUnitCache.ParsedUnit unit = units.parse(sourcePath);
+            Files.setLastModifiedTime(sourcePath, FileTime.fromMillis(Files.getLastModifiedTime(sourcePath).toMillis() + 2000));
+            assertNotSame(unit, units.parse(sourcePath));
+
+            final CompilationUnitCache.ParsedUnit reparsed = units.parse(sourcePath);
+            units.evict(sourcePath);
+            assertNotSame(reparsed, units.parse(sourcePath));
+        }
+    }
+
+    @Test
+    public void testCacheCanBeUsedAfterClose() throws IOException {
+        final Path sourcePath = createSource("Sample");
+        final CompilationUnitCache units = new CompilationUnitCache();
+        final CompilationUnitCache.ParsedUnit unit = units.parse(sourcePath);
+        units.close();
+
+        // File managers are created again on demand ...
+        final CompilationUnitCache.ParsedUnit reparsed = units.parse(sourcePath);
+        assertNotSame(unit, reparsed);
+        assertEquals(unit.getCompilationUnit().toString(), reparsed.getCompilationUnit().toString());
+        units.close();
+    }
+
+    @Test
+    public void testConcurrentParses() throws Exception {
+        final List<Path> sources = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            sources.add(createSource("Sample" + i));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (final CompilationUnitCache units = new CompilationUnitCache()) {
+            final List<Future<CompilationUnitCache.ParsedUnit>> futures = new ArrayList<>();
+            for (Path source : sources) {
+                futures.add(executor.submit(() -> units.parse(source)));
+            }
+
+            // Every parse borrows its own file manager, trees are not mixed up ...
+            for (int i = 0; i < sources.size(); i++) {
+                final CompilationUnitCache.ParsedUnit unit = futures.get(i).get(1, TimeUnit.MINUTES);
+                assertTrue(unit.getCompilationUnit().getTypeDecls().get(0).toString().contains("class Sample" + i + " "));
+                assertSame(unit, units.parse(sources.get(i)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testConcurrentParsesOfSameSource() throws Exception {
+        final Path sourcePath = createSource("Sample");
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try (final CompilationUnitCache units = new CompilationUnitCache()) {
+            final List<Future<CompilationUnitCache.ParsedUnit>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> units.parse(sourcePath)));
+            }
+
+            // Parsed once, the other callers wait for it ...
+            final CompilationUnitCache.ParsedUnit unit = futures.get(0).get(1, TimeUnit.MINUTES);
+            for (Future<CompilationUnitCache.ParsedUnit> future : futures) {
+                assertSame(unit, future.get(1, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Path createSource(final String className) throws IOException {
+        final Path sourcePath = folder.getRoot().toPath().resolve(className + ".java");
+        final String source = "package org.sample;\n\npublic class " + className + " {\n    public void run() {}\n}\n";
+        Files.write(sourcePath, source.getBytes(StandardCharsets.UTF_8));
+        return sourcePath;
+    }
+}
@@ -1,15 +1,32 @@
 package org.mule.tools.devkit.sonar.test;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.tools.devkit.sonar.ClassProperty;
+import org.mule.tools.devkit.sonar.CompilationUnitCache;
 import org.mule.tools.devkit.sonar.ConnectorModelIml;
 import org.mule.tools.devkit.sonar.Context;
+import org.mule.tools.devkit.sonar.cache.ResultCache;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class ConnectorModelTest {
 
+    private static final String CONNECTOR_CLASS = "src/main/java/org/sample/MyConnector.java";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void testParsing() {
         final Path basePath = TestData.noCompliantTestPath();
@@ -22,4 +39,79 @@ public class ConnectorModelTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testOperations() {
+        final Path basePath = TestData.noCompliantTestPath();
+        final Context.ConnectorModel model = new ConnectorModelIml(basePath.resolve("src/main/java/org/sample/MyConnector.java"));
+
+        assertTrue(model.getClassAnnotations().contains("Connector"));
+        assertEquals(19, model.getProcessors().size());
+        assertTrue(model.getSources().isEmpty());
+
+        final Context.Operation deploy = model.getOperations().stream().filter(operation -> operation.getName().equals("deployApplication")).findFirst().get();
+        assertEquals(Context.Operation.Kind.PROCESSOR, deploy.getKind());
+        assertEquals("InputStream", deploy.getParameters().get(0).getType());
+        assertEquals(Collections.singletonList("Default"), deploy.getParameters().get(0).getAnnotations());
+    }
+
+    @Test
+    public void testSnapshotRoundTrip() throws IOException {
+        final Path basePath = createModule();
+        final Path connectorPath = basePath.resolve(CONNECTOR_CLASS);
+        final ConnectorModelIml parsed;
+        try (final CompilationUnitCache units = new CompilationUnitCache()) {
+            parsed = ConnectorModelIml.load(basePath, connectorPath, units, Optional.of("v1"));
+        }
+        assertTrue(Files.isRegularFile(basePath.resolve(ResultCache.CACHE_DIR).resolve("connector-model.bin")));
+
+        // Source must not be parsed again ...
+        final ConnectorModelIml loaded = ConnectorModelIml.load(basePath, connectorPath, new FailingUnits(), Optional.of("v1"));
+        assertEquals(describe(parsed), describe(loaded));
+        assertEquals(parsed.getProperty(ClassProperty.CONNECTOR_PROCESSOR), loaded.getProperty(ClassProperty.CONNECTOR_PROCESSOR));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSnapshotOfOtherValidatorIsIgnored() throws IOException {
+        final Path basePath = createModule();
+        final Path connectorPath = basePath.resolve(CONNECTOR_CLASS);
+        try (final CompilationUnitCache units = new CompilationUnitCache()) {
+            ConnectorModelIml.load(basePath, connectorPath, units, Optional.of("v1"));
+        }
+        ConnectorModelIml.load(basePath, connectorPath, new FailingUnits(), Optional.of("v2"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSnapshotOfOtherSourceIsIgnored() throws IOException {
+        final Path basePath = createModule();
+        final Path connectorPath = basePath.resolve(CONNECTOR_CLASS);
+        try (final CompilationUnitCache units = new CompilationUnitCache()) {
+            ConnectorModelIml.load(basePath, connectorPath, units, Optional.of("v1"));
+        }
+        Files.write(connectorPath, Collections.singletonList("// Changed"), StandardOpenOption.APPEND);
+        ConnectorModelIml.load(basePath, connectorPath, new FailingUnits(), Optional.of("v1"));
+    }
+
+    private Path createModule() throws IOException {
+        final Path basePath = folder.getRoot().toPath();
+        final Path connectorPath = basePath.resolve(CONNECTOR_CLASS);
+        Files.createDirectories(connectorPath.getParent());
+        Files.createDirectories(basePath.resolve("target"));
+        Files.copy(TestData.noCompliantTestPath().resolve(CONNECTOR_CLASS), connectorPath);
+        return basePath;
+    }
+
+    private static String describe(final Context.ConnectorModel model) {
+        return model.getPackage() + " " + model.getClassAnnotations() + " " + model.getProcessors() + " " + model.getSources() + "\n" + model.getOperations().stream()
+                .map(operation -> operation.getName() + " " + operation.getKind() + " " + operation.getAnnotations() + " " + operation.getExceptions() + " "
+                        + operation.getParameters().stream().map(parameter -> parameter.getName() + ":" + parameter.getType() + parameter.getAnnotations())
+                        .collect(Collectors.toList())).collect(Collectors.joining("\n"));
+    }
+
+    private static class FailingUnits extends CompilationUnitCache {
+
+        @Override
+        public ParsedUnit parse(final Path sourcePath) {
+            throw new IllegalStateException("Source parsed " + sourcePath);
+        }
+    }
+}
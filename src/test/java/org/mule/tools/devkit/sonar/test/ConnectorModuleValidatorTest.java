@@ -0,0 +1,31 @@
+package org.mule.tools.devkit.sonar.test;
+
+import org.junit.Test;
+import org.mule.tools.devkit.sonar.ConnectorModuleValidator;
+import org.mule.tools.devkit.sonar.ValidationError;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ConnectorModuleValidatorTest {
+
+    @Test
+    public void testParallelJobsMatchSequentialRun() throws IOException {
+        final ConnectorModuleValidator validator = ConnectorModuleValidator.create();
+        for (Path basePath : new Path[] { TestData.noCompliantTestPath(), TestData.compliantTestPath() }) {
+            final Set<String> sequential = messages(validator.execute(basePath, 1));
+            assertEquals(basePath.toString(), sequential, messages(validator.execute(basePath, 4)));
+            assertEquals(basePath.toString(), sequential, messages(validator.execute(basePath, 4)));
+        }
+        assertFalse(messages(validator.execute(TestData.noCompliantTestPath(), 4)).isEmpty());
+    }
+
+    private static Set<String> messages(final Set<ValidationError> errors) {
+        return errors.stream().map(error -> error.getDocumentation().getId() + " -> " + error.getMessage()).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,155 @@
+package org.mule.tools.devkit.sonar.test;
+
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.tools.devkit.sonar.CompilationUnitCache;
+import org.mule.tools.devkit.sonar.Context;
+import org.mule.tools.devkit.sonar.ContextImpl;
+import org.mule.tools.devkit.sonar.classpath.ClassInfo;
+import org.mule.tools.devkit.sonar.exception.DevKitSonarRuntimeException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ContextImplTest {
+
+    @org.junit.Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        final Path compliantPath = TestData.compliantTestPath();
+        final Path noCompliantPath = TestData.noCompliantTestPath();
+        final int maxInstances = ContextImpl.getMaxInstances();
+        try {
+            ContextImpl.setMaxInstances(1);
+            final Context context = Context.getInstance(compliantPath);
+            assertSame(context, Context.getInstance(compliantPath));
+
+            final long evicted = ContextImpl.getEvictedInstances();
+            Context.getInstance(noCompliantPath);
+            assertEquals(evicted + 1, ContextImpl.getEvictedInstances());
+            assertEquals(1, ContextImpl.getLiveInstances());
+            assertNotSame(context, Context.getInstance(compliantPath));
+        } finally {
+            ContextImpl.setMaxInstances(maxInstances);
+            ContextImpl.invalidate(compliantPath);
+            ContextImpl.invalidate(noCompliantPath);
+        }
+    }
+
+    @Test
+    public void testAcquiredContextIsNotEvicted() {
+        final Path compliantPath = TestData.compliantTestPath();
+        final Path noCompliantPath = TestData.noCompliantTestPath();
+        final int maxInstances = ContextImpl.getMaxInstances();
+        try {
+            ContextImpl.setMaxInstances(1);
+            final ContextImpl context = ContextImpl.acquire(compliantPath);
+            Context.getInstance(noCompliantPath);
+            assertEquals(2, ContextImpl.getLiveInstances());
+            assertSame(context, Context.getInstance(compliantPath));
+
+            // Once released, it is the next one to go ...
+            context.release();
+            Context.getInstance(noCompliantPath);
+            assertEquals(1, ContextImpl.getLiveInstances());
+            assertNotSame(context, Context.getInstance(compliantPath));
+        } finally {
+            ContextImpl.setMaxInstances(maxInstances);
+            ContextImpl.invalidate(compliantPath);
+            ContextImpl.invalidate(noCompliantPath);
+        }
+    }
+
+    @Test
+    public void testInvalidatedContextIsClosedOnRelease() {
+        final Path compliantPath = TestData.compliantTestPath();
+        final Path sourcePath = compliantPath.resolve("src/main/java/org/sample/MyConnector.java");
+        try {
+            final ContextImpl context = ContextImpl.acquire(compliantPath);
+            final CompilationUnitCache.ParsedUnit unit = context.getCompilationUnits().parse(sourcePath);
+
+            // Still in use, parsed sources are kept ...
+            ContextImpl.invalidate(compliantPath);
+            assertNotSame(context, Context.getInstance(compliantPath));
+            assertSame(unit, context.getCompilationUnits().parse(sourcePath));
+
+            context.release();
+            assertNotSame(unit, context.getCompilationUnits().parse(sourcePath));
+        } finally {
+            ContextImpl.invalidate(compliantPath);
+        }
+    }
+
+    @Test
+    public void testConcurrentLookupsShareContext() throws Exception {
+        final Path compliantPath = TestData.compliantTestPath();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            ContextImpl.invalidate(compliantPath);
+            final List<Future<Context>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executor.submit(() -> Context.getInstance(compliantPath)));
+            }
+
+            final Context context = futures.get(0).get(1, TimeUnit.MINUTES);
+            for (Future<Context> future : futures) {
+                assertSame(context, future.get(1, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdown();
+            ContextImpl.invalidate(compliantPath);
+        }
+    }
+
+    @Test
+    public void testPartsAreBuiltOnDemand() throws IOException {
+        final Path basePath = folder.newFolder("module").toPath();
+        Files.createDirectories(basePath.resolve("src/main/java/org/sample"));
+        try {
+
+            // No connector class, it only fails once the model is needed ...
+            final ContextImpl context = (ContextImpl) Context.getInstance(basePath);
+            assertFalse(context.getConnectorPath().isPresent());
+            try {
+                context.getConnectorModel();
+                fail("Connector model of a module without connector class");
+            } catch (DevKitSonarRuntimeException e) {
+                assertTrue(e.getMessage().startsWith("Connector class could not be found."));
+            }
+        } finally {
+            ContextImpl.invalidate(basePath);
+        }
+    }
+
+    @Test
+    public void testClassLookupsAreCached() {
+        final Path compliantPath = TestData.compliantTestPath();
+        try {
+            final Context context = Context.getInstance(compliantPath);
+            final Optional<ClassInfo> found = context.findClass(String.class.getName());
+            assertTrue(found.isPresent());
+            assertSame(found.get(), context.findClass(String.class.getName()).get());
+            assertFalse(context.findClass("org.sample.Missing").isPresent());
+            assertFalse(context.findClass("org.sample.Missing").isPresent());
+        } finally {
+            ContextImpl.invalidate(compliantPath);
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -76,4 +77,42 @@ public class DirectoryStructureRuleTest {
 
     }
 
+    @Test
+    public void permutationOfEmptyLists() throws IOException {
+        // No lists, a single empty combination ...
+        assertEquals("[[]]", DirectoryStructureRule.permute(Collections.emptyList(), 0).toString());
+
+        // An empty list, no combination at all ...
+        final List<List<String>> sample = Arrays.asList(Arrays.asList("a1", "a2"), Collections.emptyList());
+        assertEquals("[]", DirectoryStructureRule.permute(sample, 0).toString());
+
+        // Lists below the level are skipped ...
+        assertEquals("[[b1]]", DirectoryStructureRule.permute(Arrays.asList(Arrays.asList("a1", "a2"), Collections.singletonList("b1")), 1).toString());
+    }
+
+    @Test
+    public void templateRendering() throws IOException {
+        final Rule rule = TestData.findRule("test_by_processor");
+        final Path rootPath = TestData.noCompliantTestPath();
+        final Path childPath = Paths.get("pom.xml");
+
+        // A path per processor, with the package as a directory and the processor capitalized ...
+        final Set<String> messages = messages(rule.verify(rootPath, childPath));
+        assertTrue(messages.contains("File 'src/test/java/org/sample/automation/functional/DeployApplicationTestCases.java' does not exist."));
+        assertTrue(messages.contains("File 'src/test/java/org/sample/automation/functional/DeleteTenantsTestCases.java' does not exist."));
+
+        // A variable used twice takes the same value in both places ...
+        final Rule repeated = new DirectoryStructureRule(rule.getDocumentation(), "", "src/${connector_package}/${connector_package}.txt");
+        assertEquals(Collections.singleton("File 'src/org/sample/org/sample.txt' does not exist."), messages(repeated.verify(rootPath, childPath)));
+
+        // Literal only templates are rendered once ...
+        final Rule literal = new DirectoryStructureRule(rule.getDocumentation(), "", "missing/README.md");
+        assertEquals(Collections.singleton("File 'missing/README.md' does not exist."), messages(literal.verify(rootPath, childPath)));
+        assertTrue(new DirectoryStructureRule(rule.getDocumentation(), "", "pom.xml").verify(rootPath, childPath).isEmpty());
+    }
+
+    private static Set<String> messages(final Set<ValidationError> errors) {
+        return errors.stream().map(ValidationError::getMessage).collect(Collectors.toSet());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,181 @@
+package org.mule.tools.devkit.sonar.test;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.tools.devkit.sonar.EffectivePom;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EffectivePomTest {
+
+    private static final String REPOSITORY_PROPERTY = "maven.repo.local";
+    private static final String VERSION_PROPERTY = "devkit.sonar.test.version";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path repository;
+    private String previousRepository;
+
+    @Before
+    public void setup() throws IOException {
+        repository = folder.newFolder("repository").toPath();
+        previousRepository = System.setProperty(REPOSITORY_PROPERTY, repository.toString());
+    }
+
+    @After
+    public void restore() {
+        if (previousRepository != null) {
+            System.setProperty(REPOSITORY_PROPERTY, previousRepository);
+        } else {
+            System.clearProperty(REPOSITORY_PROPERTY);
+        }
+        System.clearProperty(VERSION_PROPERTY);
+    }
+
+    @Test
+    public void testDependencyVersionsAreInterpolated() {
+        System.clearProperty(REPOSITORY_PROPERTY);
+        final EffectivePom pom = EffectivePom.of(TestData.noCompliantTestPath());
+        final List<EffectivePom.Dependency> dependencies = pom.getDependencies();
+
+        assertEquals("3.6.2", pom.getParentVersion());
+        assertEquals(2, dependencies.size());
+        assertEquals("1.7.0-HYDRA", dependencies.get(0).getVersion());
+        assertEquals("3.7.0", dependencies.get(1).getVersion());
+        assertEquals("test", dependencies.get(1).getScope());
+    }
+
+    @Test
+    public void testParentChainIsInherited() throws IOException {
+        final Path root = folder.newFolder("parent").toPath();
+        write(root.resolve("pom.xml"), pom("org.sample", "sample-parent", "1.0", null,
+                "<properties><client.version>2.0</client.version><scope.name>provided</scope.name></properties>"
+                        + "<dependencyManagement><dependencies>" + dependency("org.sample", "managed", "${client.version}", null, null)
+                        + "</dependencies></dependencyManagement>"));
+        final Path module = root.resolve("module");
+        write(module.resolve("pom.xml"), pom(null, "sample-connector", null, parent("org.sample", "sample-parent", "1.0", null),
+                "<properties><client.version>3.0</client.version></properties><dependencies>" + dependency("org.sample", "managed", null, null, null)
+                        + dependency("org.sample", "client", "${client.version}", null, "${scope.name}") + "</dependencies>"));
+
+        final EffectivePom pom = EffectivePom.of(module);
+        assertEquals("org.sample", pom.getGroupId());
+        assertEquals("1.0", pom.getVersion());
+        assertEquals("1.0", pom.getParentVersion());
+
+        // Children override inherited properties, managed versions are interpolated with them ...
+        assertEquals("3.0", pom.getProperties().get("client.version"));
+        assertEquals("3.0", pom.getDependencies().get(0).getVersion());
+        assertEquals("compile", pom.getDependencies().get(0).getScope());
+        assertEquals("3.0", pom.getDependencies().get(1).getVersion());
+        assertEquals("provided", pom.getDependencies().get(1).getScope());
+    }
+
+    @Test
+    public void testParentIsTakenFromRepositoryIfRelativePathDoesNotMatch() throws IOException {
+        final Path root = folder.newFolder("aggregator").toPath();
+        write(root.resolve("pom.xml"), pom("org.sample", "aggregator", "1.0", null, "<properties><origin>aggregator</origin></properties>"));
+        write(repository.resolve("org/sample/sample-parent/1.0/sample-parent-1.0.pom"),
+                pom("org.sample", "sample-parent", "1.0", null, "<properties><origin>repository</origin></properties>"));
+        final Path module = root.resolve("module");
+        write(module.resolve("pom.xml"), pom(null, "sample-connector", null, parent("org.sample", "sample-parent", "1.0", null), ""));
+
+        assertEquals("repository", EffectivePom.of(module).getProperties().get("origin"));
+    }
+
+    @Test
+    public void testClassifierIsInterpolated() throws IOException {
+        final Path module = folder.newFolder("classifier").toPath();
+        write(module.resolve("pom.xml"), pom("org.sample", "sample-connector", "1.0", null,
+                "<properties><jdk>jdk15</jdk></properties><dependencies>" + dependency("net.sf", "json-lib", "2.4", "${jdk}", null) + "</dependencies>"));
+
+        final EffectivePom.Dependency dependency = EffectivePom.of(module).getDependencies().get(0);
+        assertEquals("jdk15", dependency.getClassifier());
+        assertEquals("2.4", dependency.getVersion());
+    }
+
+    @Test
+    public void testCyclesAreLeftUnresolved() throws IOException {
+        final Path module = folder.newFolder("cycle").toPath();
+        write(module.resolve("pom.xml"), pom("org.sample", "sample-connector", "1.0", null,
+                "<properties><a>${b}</a><b>${a}</b></properties><dependencies>" + dependency("org.sample", "client", "${a}", null, null)
+                        + dependency("org.sample", "unmanaged", null, null, null) + "</dependencies>"));
+
+        final List<EffectivePom.Dependency> dependencies = EffectivePom.of(module).getDependencies();
+        assertTrue(dependencies.get(0).getVersion().contains("${"));
+        assertNull(dependencies.get(1).getVersion());
+    }
+
+    @Test
+    public void testCacheIsRebuiltWhenPomChanges() throws IOException {
+        final Path module = cachedModule("<properties><client.version>1.0</client.version></properties>");
+        assertEquals("1.0", EffectivePom.of(module).getProperties().get("client.version"));
+        assertTrue(Files.exists(module.resolve("target/.certcache/pom-model.json")));
+
+        write(module.resolve("pom.xml"), pom("org.sample", "sample-connector", "1.0", null, "<properties><client.version>2.0</client.version></properties>"));
+        assertEquals("2.0", EffectivePom.of(module).getProperties().get("client.version"));
+    }
+
+    @Test
+    public void testCacheIsRebuiltWhenMissingParentIsInstalled() throws IOException {
+        final Path module = folder.newFolder("orphan").toPath();
+        Files.createDirectories(module.resolve("target"));
+        write(module.resolve("pom.xml"), pom(null, "sample-connector", null, parent("org.sample", "sample-parent", "1.0", ""), ""));
+        assertNull(EffectivePom.of(module).getProperties().get("origin"));
+
+        write(repository.resolve("org/sample/sample-parent/1.0/sample-parent-1.0.pom"),
+                pom("org.sample", "sample-parent", "1.0", null, "<properties><origin>repository</origin></properties>"));
+        assertEquals("repository", EffectivePom.of(module).getProperties().get("origin"));
+    }
+
+    @Test
+    public void testCacheIsRebuiltWhenSystemPropertyChanges() throws IOException {
+        final Path module = cachedModule("<dependencies>" + dependency("org.sample", "client", "${" + VERSION_PROPERTY + "}", null, null) + "</dependencies>");
+        assertEquals("${" + VERSION_PROPERTY + "}", EffectivePom.of(module).getDependencies().get(0).getVersion());
+
+        System.setProperty(VERSION_PROPERTY, "4.0");
+        assertEquals("4.0", EffectivePom.of(module).getDependencies().get(0).getVersion());
+    }
+
+    private Path cachedModule(final String content) throws IOException {
+        final Path module = folder.newFolder("cached").toPath();
+        Files.createDirectories(module.resolve("target"));
+        write(module.resolve("pom.xml"), pom("org.sample", "sample-connector", "1.0", null, content));
+        return module;
+    }
+
+    private static void write(final Path path, final String content) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String pom(final String groupId, final String artifactId, final String version, final String parent, final String content) {
+        return "<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><modelVersion>4.0.0</modelVersion>" + (parent != null ? parent : "")
+                + element("groupId", groupId) + element("artifactId", artifactId) + element("version", version) + content + "</project>";
+    }
+
+    private static String parent(final String groupId, final String artifactId, final String version, final String relativePath) {
+        return "<parent>" + element("groupId", groupId) + element("artifactId", artifactId) + element("version", version)
+                + element("relativePath", relativePath) + "</parent>";
+    }
+
+    private static String dependency(final String groupId, final String artifactId, final String version, final String classifier, final String scope) {
+        return "<dependency>" + element("groupId", groupId) + element("artifactId", artifactId) + element("version", version)
+                + element("classifier", classifier) + element("scope", scope) + "</dependency>";
+    }
+
+    private static String element(final String name, final String value) {
+        return value != null ? "<" + name + ">" + value + "</" + name + ">" : "";
+    }
+}
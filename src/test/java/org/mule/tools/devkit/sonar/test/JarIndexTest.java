@@ -0,0 +1,58 @@
+package org.mule.tools.devkit.sonar.test;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.tools.devkit.sonar.classpath.JarIndex;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class JarIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEntriesSurviveSave() throws IOException {
+        final Path jar = createJar("Sample.jar", "org/mule/Sample.class", "META-INF/MANIFEST.MF");
+        final Path indexFile = folder.getRoot().toPath().resolve("jar-index.bin");
+
+        final JarIndex index = JarIndex.load(indexFile);
+        assertEquals(Collections.singleton("org/mule/Sample.class"), index.entries(jar));
+        index.save();
+
+        final JarIndex loaded = JarIndex.load(indexFile);
+        assertEquals(Collections.singleton("org/mule/Sample.class"), loaded.entries(jar));
+    }
+
+    @Test
+    public void testChangedJarIsListedAgain() throws IOException {
+        final Path jar = createJar("Sample.jar", "org/mule/Sample.class");
+        final JarIndex index = JarIndex.load(folder.getRoot().toPath().resolve("jar-index.bin"));
+        index.entries(jar);
+
+        createJar("Sample.jar", "org/mule/Sample.class", "org/mule/Other.class");
+        assertEquals(new HashSet<>(Arrays.asList("org/mule/Sample.class", "org/mule/Other.class")), index.entries(jar));
+    }
+
+    private Path createJar(final String name, final String... entries) throws IOException {
+        final Path result = folder.getRoot().toPath().resolve(name);
+        try (final OutputStream os = Files.newOutputStream(result); final ZipOutputStream zip = new ZipOutputStream(os)) {
+            for (String entry : entries) {
+                zip.putNextEntry(new ZipEntry(entry));
+                zip.closeEntry();
+            }
+        }
+        return result;
+    }
+}
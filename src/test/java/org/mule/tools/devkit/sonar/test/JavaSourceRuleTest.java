@@ -2,22 +2,31 @@ package org.mule.tools.devkit.sonar.test;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mockito;
 import org.mule.tools.devkit.sonar.Context;
+import org.mule.tools.devkit.sonar.ContextImpl;
 import org.mule.tools.devkit.sonar.Rule;
 import org.mule.tools.devkit.sonar.ValidationError;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.Arrays;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class JavaSourceRuleTest {
 
+    @org.junit.Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Before
     public void setup() {
 
@@ -102,4 +111,51 @@ public class JavaSourceRuleTest {
         // assertEquals(0, verify.size());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testAcceptsEditedSource() throws IOException {
+        final Rule rule = TestData.findRule("metadata_category");
+        final Path rootPath = folder.getRoot().toPath();
+        Files.copy(TestData.compliantTestPath().resolve("pom.xml"), rootPath.resolve("pom.xml"));
+        Files.createDirectories(rootPath.resolve("target/classes"));
+
+        final Path childPath = Paths.get("src/main/java/org/sample/Category.java");
+        final Path sourcePath = rootPath.resolve(childPath);
+        Files.createDirectories(sourcePath.getParent());
+        try {
+            Files.write(sourcePath, "package org.sample;\n\npublic class Category {\n}\n".getBytes(StandardCharsets.UTF_8));
+            assertFalse(rule.accepts(rootPath, childPath));
+
+            // Same context, the annotation is added afterwards ...
+            Files.write(sourcePath, ("package org.sample;\n\nimport org.mule.api.annotations.components.MetaDataCategory;\n\n"
+                    + "@MetaDataCategory\npublic class Category {\n}\n").getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(sourcePath, FileTime.fromMillis(Files.getLastModifiedTime(sourcePath).toMillis() + 2000));
+            assertTrue(rule.accepts(rootPath, childPath));
+        } finally {
+            ContextImpl.invalidate(rootPath);
+        }
+    }
+
+    @Test
+    public void testTransformerResolverOutsideConnectorClass() throws IOException {
+        final Rule rule = TestData.findRule("transform_resolver");
+        final Path rootPath = folder.getRoot().toPath();
+        Files.copy(TestData.compliantTestPath().resolve("pom.xml"), rootPath.resolve("pom.xml"));
+        Files.createDirectories(rootPath.resolve("target/classes"));
+
+        final Path childPath = Paths.get("src/main/java/org/sample/MyConnector.java");
+        final Path sourcePath = rootPath.resolve(childPath);
+        Files.createDirectories(sourcePath.getParent());
+        try {
+            // Resolvers apply to every flow, wherever they are declared in the file ...
+            Files.write(sourcePath, ("package org.sample;\n\nimport org.mule.api.annotations.Connector;\nimport org.mule.api.annotations.TransformerResolver;\n\n"
+                    + "@Connector(name = \"sample\")\npublic class MyConnector {\n\n    public static class Resolvers {\n\n"
+                    + "        @TransformerResolver\n        public static Object find() {\n            return null;\n        }\n    }\n}\n").getBytes(StandardCharsets.UTF_8));
+            assertTrue("File could not be found.", rule.accepts(rootPath, childPath));
+
+            final Set<ValidationError> verify = rule.verify(rootPath, childPath);
+            assertEquals(1, verify.size());
+        } finally {
+            ContextImpl.invalidate(rootPath);
+        }
+    }
+}
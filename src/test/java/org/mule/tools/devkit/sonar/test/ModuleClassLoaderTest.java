@@ -1,18 +1,26 @@
 package org.mule.tools.devkit.sonar.test;
 
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mule.tools.devkit.sonar.ModuleClassLoader;
 import org.xml.sax.SAXException;
 
 import javax.xml.xpath.XPathExpressionException;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 public class ModuleClassLoaderTest {
 
+    @org.junit.Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void testDependencies() throws IOException, XPathExpressionException, SAXException {
 
@@ -23,4 +31,41 @@ public class ModuleClassLoaderTest {
         assertEquals(6, urls.length);
 
     }
+
+    @Test
+    public void testSharedLayersAreReferenceCounted() throws IOException, XPathExpressionException, SAXException {
+        final Path first = createModule("first");
+        final Path second = createModule("second");
+
+        final ModuleClassLoader firstLoader = new ModuleClassLoader(first);
+        final ModuleClassLoader secondLoader = new ModuleClassLoader(second);
+        assertSame(firstLoader.getParent(), secondLoader.getParent());
+
+        // Closing twice must release the layers once ...
+        firstLoader.close();
+        firstLoader.close();
+        final ModuleClassLoader thirdLoader = new ModuleClassLoader(first);
+        assertSame(secondLoader.getParent(), thirdLoader.getParent());
+
+        // Last module gone, layers are created again ...
+        secondLoader.close();
+        thirdLoader.close();
+        final ModuleClassLoader fourthLoader = new ModuleClassLoader(first);
+        try {
+            assertNotSame(secondLoader.getParent(), fourthLoader.getParent());
+            assertNotSame(secondLoader.getParent().getParent(), fourthLoader.getParent().getParent());
+        } finally {
+            fourthLoader.close();
+        }
+    }
+
+    // Layers are keyed by their jars, the DevKit version keeps them apart from the ones of other tests ...
+    private Path createModule(final String name) throws IOException {
+        final Path result = folder.newFolder(name).toPath();
+        Files.write(result.resolve("pom.xml"), ("<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><modelVersion>4.0.0</modelVersion>"
+                + "<parent><groupId>org.mule.tools.devkit</groupId><artifactId>mule-devkit-parent</artifactId><version>0.0.1-layers</version></parent>"
+                + "<artifactId>" + name + "</artifactId></project>").getBytes(StandardCharsets.UTF_8));
+        Files.createDirectories(result.resolve("target/classes"));
+        return result;
+    }
 }
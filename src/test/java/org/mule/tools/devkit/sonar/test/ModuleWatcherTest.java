@@ -0,0 +1,109 @@
+package org.mule.tools.devkit.sonar.test;
+
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.tools.devkit.sonar.ConnectorModuleValidator;
+import org.mule.tools.devkit.sonar.ContextImpl;
+import org.mule.tools.devkit.sonar.ModuleWatcher;
+import org.mule.tools.devkit.sonar.ValidationError;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ModuleWatcherTest {
+
+    private static final Path CONNECTOR_CLASS = Paths.get("src/main/java/org/sample/MyConnector.java");
+    private static final Path README = Paths.get("README.md");
+
+    @org.junit.Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Set<String> messages = Collections.emptySet();
+
+    @Test
+    public void testDeletedFileIsReported() throws IOException {
+        final Path basePath = createModule();
+        try (final ModuleWatcher watcher = new ModuleWatcher(ConnectorModuleValidator.create(), basePath, (path, errors) -> this.messages = messages(errors))) {
+            watcher.start();
+            assertFalse(messages.contains("File 'README.md' does not exist."));
+
+            Files.delete(basePath.resolve(README));
+            watcher.onChange(Collections.singleton(README), true);
+            assertTrue(messages.contains("File 'README.md' does not exist."));
+        } finally {
+            ContextImpl.invalidate(basePath);
+        }
+    }
+
+    @Test
+    public void testModifiedFileIsValidatedAgain() throws IOException {
+        final Path basePath = createModule();
+        final String missingTest = "/ExtraOperationTestCases.java' does not exist.";
+        try (final ModuleWatcher watcher = new ModuleWatcher(ConnectorModuleValidator.create(), basePath, (path, errors) -> this.messages = messages(errors))) {
+            watcher.start();
+            assertFalse(messages.stream().anyMatch(message -> message.endsWith(missingTest)));
+
+            // A new processor requires its own test cases ...
+            final Path sourcePath = basePath.resolve(CONNECTOR_CLASS);
+            final String source = new String(Files.readAllBytes(sourcePath), StandardCharsets.UTF_8);
+            final int end = source.lastIndexOf('}');
+            Files.write(sourcePath, (source.substring(0, end) + "\n    @Processor\n    public void extraOperation() {\n    }\n}\n").getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(sourcePath, FileTime.fromMillis(Files.getLastModifiedTime(sourcePath).toMillis() + 2000));
+
+            watcher.onChange(Collections.singleton(CONNECTOR_CLASS), false);
+            assertTrue(messages.stream().anyMatch(message -> message.endsWith(missingTest)));
+        } finally {
+            ContextImpl.invalidate(basePath);
+        }
+    }
+
+    @Test
+    public void testFilesOfDeletedDirectoryAreDropped() throws IOException {
+        final Path basePath = createModule();
+        final Path extraPath = Paths.get("extra");
+        final Path xmlPath = extraPath.resolve("some.xml");
+        try (final ModuleWatcher watcher = new ModuleWatcher(ConnectorModuleValidator.create(), basePath, (path, errors) -> this.messages = messages(errors))) {
+            watcher.start();
+            final Set<String> expected = messages;
+
+            Files.createDirectories(basePath.resolve(extraPath));
+            Files.write(basePath.resolve(xmlPath), "<project><properties/></project>".getBytes(StandardCharsets.UTF_8));
+            watcher.onChange(new HashSet<>(Arrays.asList(extraPath, xmlPath)), true);
+            assertNotEquals(expected, messages);
+
+            // Only the directory deletion is notified ...
+            Files.delete(basePath.resolve(xmlPath));
+            Files.delete(basePath.resolve(extraPath));
+            watcher.onChange(Collections.singleton(extraPath), true);
+            assertEquals(expected, messages);
+        } finally {
+            ContextImpl.invalidate(basePath);
+        }
+    }
+
+    private Path createModule() throws IOException {
+        final Path basePath = folder.getRoot().toPath();
+        final Path sourcePath = TestData.compliantTestPath();
+        for (Path file : Arrays.asList(Paths.get("pom.xml"), README, CONNECTOR_CLASS)) {
+            Files.createDirectories(basePath.resolve(file).getParent());
+            Files.copy(sourcePath.resolve(file), basePath.resolve(file));
+        }
+        Files.createDirectories(basePath.resolve("target/classes"));
+        return basePath;
+    }
+
+    private static Set<String> messages(final Set<ValidationError> errors) {
+        return errors.stream().map(ValidationError::getMessage).collect(Collectors.toSet());
+    }
+}
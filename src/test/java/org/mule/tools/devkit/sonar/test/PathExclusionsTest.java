@@ -0,0 +1,102 @@
+package org.mule.tools.devkit.sonar.test;
+
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.tools.devkit.sonar.PathExclusions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PathExclusionsTest {
+
+    @org.junit.Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testDefaultPatternsAreAnchored() {
+        final PathExclusions exclusions = PathExclusions.compile(PathExclusions.DEFAULT_PATTERNS);
+
+        assertTrue(exclusions.isExcluded(Paths.get(".git"), true));
+        assertTrue(exclusions.isExcluded(Paths.get(".certignore"), false));
+        assertTrue(exclusions.isExcluded(Paths.get("target"), true));
+        assertTrue(exclusions.isExcluded(Paths.get("node_modules"), true));
+
+        // Nested paths were never filtered out ...
+        assertFalse(exclusions.isExcluded(Paths.get("src/main/resources/.gitkeep"), false));
+        assertFalse(exclusions.isExcluded(Paths.get("src/main/java/org/sample/target"), true));
+        assertFalse(exclusions.isExcluded(Paths.get("demo/node_modules"), true));
+        assertFalse(exclusions.isExcluded(Paths.get(""), true));
+    }
+
+    @Test
+    public void testAnchoredAndUnanchoredPatterns() {
+        final PathExclusions exclusions = PathExclusions.compile(Arrays.asList("*.log", "/build", "doc/generated"));
+
+        assertTrue(exclusions.isExcluded(Paths.get("server.log"), false));
+        assertTrue(exclusions.isExcluded(Paths.get("src/test/resources/server.log"), false));
+        assertTrue(exclusions.isExcluded(Paths.get("build"), true));
+        assertFalse(exclusions.isExcluded(Paths.get("src/build"), true));
+        assertTrue(exclusions.isExcluded(Paths.get("doc/generated"), true));
+        assertFalse(exclusions.isExcluded(Paths.get("src/doc/generated"), true));
+    }
+
+    @Test
+    public void testDoubleStarPatterns() {
+        final PathExclusions exclusions = PathExclusions.compile(Arrays.asList("**/generated", "demo/**/*.xml"));
+
+        assertTrue(exclusions.isExcluded(Paths.get("generated"), true));
+        assertTrue(exclusions.isExcluded(Paths.get("src/main/generated"), true));
+        assertTrue(exclusions.isExcluded(Paths.get("demo/flows.xml"), false));
+        assertTrue(exclusions.isExcluded(Paths.get("demo/app/src/flows.xml"), false));
+        assertFalse(exclusions.isExcluded(Paths.get("src/flows.xml"), false));
+    }
+
+    @Test
+    public void testDirectoryOnlyPatterns() {
+        final PathExclusions exclusions = PathExclusions.compile(Collections.singletonList("logs/"));
+
+        assertTrue(exclusions.isExcluded(Paths.get("logs"), true));
+        assertTrue(exclusions.isExcluded(Paths.get("src/logs"), true));
+        assertFalse(exclusions.isExcluded(Paths.get("logs"), false));
+    }
+
+    @Test
+    public void testSpecialCharactersAreEscaped() {
+        final PathExclusions exclusions = PathExclusions.compile(Arrays.asList("a+b.txt", "file(1)[2].txt", "$HOME"));
+
+        assertTrue(exclusions.isExcluded(Paths.get("a+b.txt"), false));
+        assertFalse(exclusions.isExcluded(Paths.get("aab.txt"), false));
+        assertFalse(exclusions.isExcluded(Paths.get("a+b_txt"), false));
+        assertTrue(exclusions.isExcluded(Paths.get("file(1)[2].txt"), false));
+        assertTrue(exclusions.isExcluded(Paths.get("$HOME"), true));
+    }
+
+    @Test
+    public void testExcludedDirectoriesAreNotWalked() throws IOException {
+        final Path basePath = folder.getRoot().toPath();
+        Files.createDirectories(basePath.resolve("target/classes"));
+        Files.createDirectories(basePath.resolve("src/main/java"));
+        Files.createFile(basePath.resolve("src/main/java/.keep"));
+        Files.createFile(basePath.resolve("pom.xml"));
+
+        final List<Path> paths = PathExclusions.compile(PathExclusions.DEFAULT_PATTERNS).walk(basePath);
+        assertTrue(paths.contains(Paths.get("pom.xml")));
+        assertTrue(paths.contains(Paths.get("src/main/java/.keep")));
+        assertFalse(paths.contains(Paths.get("target")));
+        assertFalse(paths.contains(Paths.get("target/classes")));
+    }
+
+    @Test(expected = NoSuchFileException.class)
+    public void testMissingModuleIsReported() throws IOException {
+        PathExclusions.compile(PathExclusions.DEFAULT_PATTERNS).walk(folder.getRoot().toPath().resolve("missing"));
+    }
+}
@@ -0,0 +1,85 @@
+package org.mule.tools.devkit.sonar.test;
+
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.tools.devkit.sonar.PathExclusions;
+import org.mule.tools.devkit.sonar.PathIndex;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PathIndexTest {
+
+    @org.junit.Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWalkedPaths() throws IOException {
+        final Path basePath = createModule();
+        final PathIndex index = build(basePath);
+
+        assertTrue(index.exists(basePath, Paths.get("")));
+        assertTrue(index.exists(basePath, Paths.get("src/main/java/org/sample/MyConnector.java")));
+        assertTrue(index.exists(basePath, Paths.get("src/main/java/org/sample")));
+        assertTrue(index.exists(basePath, Paths.get("src/main/../main/java")));
+        assertFalse(index.exists(basePath, Paths.get("src/main/java/org/sample/Other.java")));
+        assertFalse(index.exists(basePath, Paths.get("src/main/java/org/sample/MyConnector.java/Inner")));
+
+        // It is a snapshot, files created afterwards are not seen ...
+        Files.createFile(basePath.resolve("icons"));
+        assertFalse(index.exists(basePath, Paths.get("icons")));
+    }
+
+    @Test
+    public void testExcludedPathsAreLookedUp() throws IOException {
+        final Path basePath = createModule();
+        final PathIndex index = build(basePath);
+
+        assertTrue(index.exists(basePath, Paths.get("target/classes")));
+        assertFalse(index.exists(basePath, Paths.get("target/test-classes")));
+        assertTrue(index.exists(basePath, Paths.get(".certignore")));
+    }
+
+    @Test
+    public void testPathsOutsideModuleAreLookedUp() throws IOException {
+        final Path basePath = createModule();
+        final PathIndex index = build(basePath);
+
+        assertTrue(index.exists(basePath, Paths.get("..", basePath.getFileName().toString(), "pom.xml")));
+        assertFalse(index.exists(basePath, Paths.get("../missing")));
+        assertTrue(index.exists(basePath, basePath.resolve("pom.xml")));
+    }
+
+    @Test
+    public void testCaseFollowsFileSystem() throws IOException {
+        final Path basePath = createModule();
+        final PathIndex index = build(basePath);
+
+        // Case insensitive file systems find it, as the former file system lookup did ...
+        final Path path = Paths.get("readme.md");
+        assertEquals(Files.exists(basePath.resolve(path)), index.exists(basePath, path));
+        assertTrue(index.exists(basePath, Paths.get("README.md")));
+    }
+
+    private Path createModule() throws IOException {
+        final Path basePath = folder.newFolder("module").toPath();
+        Files.createDirectories(basePath.resolve("src/main/java/org/sample"));
+        Files.createFile(basePath.resolve("src/main/java/org/sample/MyConnector.java"));
+        Files.createDirectories(basePath.resolve("target/classes"));
+        Files.createFile(basePath.resolve("README.md"));
+        Files.createFile(basePath.resolve("pom.xml"));
+        Files.createFile(basePath.resolve(".certignore"));
+        return basePath;
+    }
+
+    private static PathIndex build(final Path basePath) throws IOException {
+        final PathExclusions exclusions = PathExclusions.compile(PathExclusions.DEFAULT_PATTERNS);
+        return PathIndex.build(basePath, exclusions.walk(basePath), exclusions);
+    }
+}
@@ -1,19 +1,31 @@
 package org.mule.tools.devkit.sonar.test;
 
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.tools.devkit.sonar.ContextImpl;
 import org.mule.tools.devkit.sonar.Rule;
 import org.mule.tools.devkit.sonar.ValidationError;
+import org.mule.tools.devkit.sonar.rule.DocumentationImpl;
+import org.mule.tools.devkit.sonar.rule.PomRule;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
 import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class PomRuleTest {
 
+    @org.junit.Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Test
     public void testFrameworkOverwrite() throws IOException {
         final Rule rule = TestData.findRule("ctf_version_overwritten");
@@ -74,4 +86,54 @@ public class PomRuleTest {
         assertEquals(1, verify.size());
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void testNotOperand() {
+        assertEquals(Optional.of("/pom:project/pom:version"), PomRule.notOperand("not(/pom:project/pom:version)"));
+        assertEquals(Optional.of("not(/pom:project/pom:version)"), PomRule.notOperand("not(not(/pom:project/pom:version))"));
+        assertEquals(Optional.of("'('"), PomRule.notOperand("not('(')"));
+        assertEquals(Optional.of("/pom:project/pom:version"), PomRule.notOperand("not (/pom:project/pom:version)"));
+    }
+
+    @Test
+    public void testNotOperandOfPartialExpression() {
+        // Only the first operand is negated ...
+        assertEquals(Optional.empty(), PomRule.notOperand("not(/pom:project/pom:name) and not(/pom:project/pom:version)"));
+        assertEquals(Optional.empty(), PomRule.notOperand("not(')') or true()"));
+        assertEquals(Optional.empty(), PomRule.notOperand("notation(/pom:project)"));
+        assertEquals(Optional.empty(), PomRule.notOperand("/pom:project/pom:version"));
+    }
+
+    @Test
+    public void testDoubleNegatedAccept() throws IOException {
+        final Rule rule = new PomRule(DocumentationImpl.create("ctf_version", "CTF version", "CTF version", "Test", Rule.Documentation.Severity.MINOR),
+                "not(not(/pom:project/pom:properties/pom:connector.test.version/node()))", "true()");
+        final Path childPath = Paths.get("pom.xml");
+
+        assertTrue(rule.accepts(TestData.noCompliantTestPath(), childPath));
+        assertFalse(rule.accepts(TestData.compliantTestPath(), childPath));
+    }
+
+    @Test
+    public void testPomIsCheckedOncePerRun() throws IOException {
+        final Rule rule = TestData.findRule("ctf_version_overwritten");
+        final Path rootPath = folder.getRoot().toPath();
+        final Path pomPath = rootPath.resolve("pom.xml");
+        final Path childPath = Paths.get("pom.xml");
+        Files.copy(TestData.noCompliantTestPath().resolve("pom.xml"), pomPath);
+        try {
+            assertEquals(1, rule.verify(rootPath, childPath).size());
+
+            // The property is removed while the run is in progress ...
+            final String pom = new String(Files.readAllBytes(pomPath), StandardCharsets.UTF_8);
+            Files.write(pomPath, pom.replaceAll("<connector.test.version>[^<]*</connector.test.version>", "").getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(pomPath, FileTime.fromMillis(Files.getLastModifiedTime(pomPath).toMillis() + 2000));
+            assertEquals(1, rule.verify(rootPath, childPath).size());
+
+            ((ContextImpl) ContextImpl.getInstance(rootPath)).endRun();
+            assertEquals(0, rule.verify(rootPath, childPath).size());
+        } finally {
+            ContextImpl.invalidate(rootPath);
+        }
+    }
+}
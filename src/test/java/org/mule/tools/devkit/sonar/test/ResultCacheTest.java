@@ -0,0 +1,199 @@
+package org.mule.tools.devkit.sonar.test;
+
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mule.tools.devkit.sonar.Context;
+import org.mule.tools.devkit.sonar.ContextImpl;
+import org.mule.tools.devkit.sonar.PathExclusions;
+import org.mule.tools.devkit.sonar.PathIndex;
+import org.mule.tools.devkit.sonar.Rule;
+import org.mule.tools.devkit.sonar.ValidationError;
+import org.mule.tools.devkit.sonar.cache.ResultCache;
+import org.mule.tools.devkit.sonar.rule.DirectoryStructureRule;
+import org.mule.tools.devkit.sonar.rule.DocumentationImpl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class ResultCacheTest {
+
+    private static final Path CHILD_PATH = Paths.get("README.md");
+
+    @org.junit.Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @Test
+    public void testUnchangedInputsAreReused() throws IOException {
+        final Path basePath = createModule();
+        final Rule rule = new InputsRule(CHILD_PATH);
+        compute(basePath, rule, "v1").save();
+
+        final ResultCache cache = compute(basePath, rule, "v1");
+        assertEquals(1, verifications.get());
+        assertEquals(Collections.singleton("Missing section"), messages(cache.compute(rule, CHILD_PATH, this::verify)));
+    }
+
+    @Test
+    public void testChangedInputIsVerifiedAgain() throws IOException {
+        final Path basePath = createModule();
+        final Rule rule = new InputsRule(CHILD_PATH);
+        compute(basePath, rule, "v1").save();
+
+        Files.write(basePath.resolve(CHILD_PATH), "# Changed".getBytes(StandardCharsets.UTF_8));
+        compute(basePath, rule, "v1");
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    public void testChangedValidatorIsVerifiedAgain() throws IOException {
+        final Path basePath = createModule();
+        final Rule rule = new InputsRule(CHILD_PATH);
+        compute(basePath, rule, "v1").save();
+
+        compute(basePath, rule, "v2");
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    public void testUnknownValidatorIsNotCached() throws IOException {
+        final Path basePath = createModule();
+        final Rule rule = new InputsRule(CHILD_PATH);
+        final ResultCache cache = ResultCache.load(basePath, Collections.singleton(rule), Collections.singletonList(CHILD_PATH), Optional.empty());
+        cache.compute(rule, CHILD_PATH, this::verify);
+        cache.save();
+
+        assertFalse(Files.exists(basePath.resolve(ResultCache.CACHE_DIR)));
+    }
+
+    @Test
+    public void testChangedClassPathIsVerifiedAgain() throws IOException {
+        final Path basePath = createModule();
+        final Path classFile = basePath.resolve("target/classes/org/sample/Model.class");
+        Files.createDirectories(classFile.getParent());
+        Files.write(classFile, new byte[] { 1 });
+
+        final Rule rule = new InputsRule(CHILD_PATH, Rule.MODULE_CLASS_PATH);
+        try {
+            compute(basePath, rule, "v1").save();
+            compute(basePath, rule, "v1");
+            assertEquals(1, verifications.get());
+
+            // Recompiled, e.g. the class is now an enum ...
+            Files.write(classFile, new byte[] { 1, 2 });
+            compute(basePath, rule, "v1");
+            assertEquals(2, verifications.get());
+        } finally {
+            ContextImpl.invalidate(basePath);
+        }
+    }
+
+    @Test
+    public void testClassPathIsStampedWithoutContext() throws IOException {
+        final Path basePath = createModule();
+        final Rule rule = new InputsRule(CHILD_PATH, Rule.MODULE_CLASS_PATH);
+        final long created = ContextImpl.getCreatedInstances();
+        compute(basePath, rule, "v1").save();
+        compute(basePath, rule, "v1");
+        assertEquals(1, verifications.get());
+        assertEquals(created, ContextImpl.getCreatedInstances());
+    }
+
+    @Test
+    public void testMissingClassesAreVerifiedAgain() throws IOException {
+        final Path basePath = createModule();
+        Files.delete(basePath.resolve("target/classes"));
+
+        final Rule rule = new InputsRule(CHILD_PATH, Rule.MODULE_CLASS_PATH);
+        compute(basePath, rule, "v1").save();
+        compute(basePath, rule, "v1");
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    public void testExcludedStructurePathIsInput() throws IOException {
+        final Path basePath = createModule();
+        final Rule rule = new DirectoryStructureRule(InputsRule.DOCUMENTATION, "", "target/classes/icon.png");
+        final PathExclusions exclusions = PathExclusions.compile(PathExclusions.DEFAULT_PATTERNS);
+        final ContextImpl context = (ContextImpl) Context.getInstance(basePath);
+        try {
+            context.setPathIndex(Optional.of(PathIndex.build(basePath, exclusions.walk(basePath), exclusions)));
+            compute(basePath, rule, "v1").save();
+            compute(basePath, rule, "v1");
+            assertEquals(1, verifications.get());
+
+            // Excluded paths are not walked, the layout does not change ...
+            Files.createFile(basePath.resolve("target/classes/icon.png"));
+            compute(basePath, rule, "v1");
+            assertEquals(2, verifications.get());
+        } finally {
+            ContextImpl.invalidate(basePath);
+        }
+    }
+
+    private Path createModule() throws IOException {
+        final Path basePath = folder.getRoot().toPath();
+        Files.copy(TestData.compliantTestPath().resolve("pom.xml"), basePath.resolve("pom.xml"));
+        Files.createDirectories(basePath.resolve("target/classes"));
+        Files.write(basePath.resolve(CHILD_PATH), "# Connector".getBytes(StandardCharsets.UTF_8));
+        return basePath;
+    }
+
+    private ResultCache compute(final Path basePath, final Rule rule, final String fingerprint) {
+        final ResultCache cache = ResultCache.load(basePath, Collections.singleton(rule), Collections.singletonList(CHILD_PATH), Optional.of(fingerprint));
+        cache.compute(rule, CHILD_PATH, this::verify);
+        return cache;
+    }
+
+    private Set<ValidationError> verify() {
+        verifications.incrementAndGet();
+        return Collections.singleton(ValidationError.create(InputsRule.DOCUMENTATION, "Missing section"));
+    }
+
+    private static Set<String> messages(final Set<ValidationError> errors) {
+        final Set<String> result = new HashSet<>();
+        errors.forEach(error -> result.add(error.getMessage()));
+        return result;
+    }
+
+    private static class InputsRule implements Rule {
+
+        static final Documentation DOCUMENTATION = DocumentationImpl.create("readme_sections", "Readme sections", "Readme sections", "Test",
+                Documentation.Severity.MINOR);
+
+        private final Set<Path> inputs;
+
+        InputsRule(final Path... inputs) {
+            this.inputs = new HashSet<>(Arrays.asList(inputs));
+        }
+
+        @Override
+        public boolean accepts(final Path basePath, final Path childPath) {
+            return true;
+        }
+
+        @Override
+        public Set<ValidationError> verify(final Path basePath, final Path childPath) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Documentation getDocumentation() {
+            return DOCUMENTATION;
+        }
+
+        @Override
+        public Set<Path> inputs(final Path basePath, final Path childPath) {
+            return inputs;
+        }
+    }
+}
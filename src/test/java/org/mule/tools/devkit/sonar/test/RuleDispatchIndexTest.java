@@ -0,0 +1,67 @@
+package org.mule.tools.devkit.sonar.test;
+
+import org.junit.Test;
+import org.mule.tools.devkit.sonar.PathExclusions;
+import org.mule.tools.devkit.sonar.Rule;
+import org.mule.tools.devkit.sonar.RulesFactory;
+import org.mule.tools.devkit.sonar.rule.PomRule;
+import org.mule.tools.devkit.sonar.rule.RuleDispatchIndex;
+import org.mule.tools.devkit.sonar.rule.XmlRule;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RuleDispatchIndexTest {
+
+    @Test
+    public void testCandidatesIncludeAcceptingRules() throws IOException {
+        final Set<Rule> rules = RulesFactory.load();
+        final RuleDispatchIndex index = RuleDispatchIndex.compile(rules);
+
+        for (Path rootPath : new Path[] { TestData.noCompliantTestPath(), TestData.compliantTestPath() }) {
+            for (Path childPath : PathExclusions.compile(PathExclusions.DEFAULT_PATTERNS).walk(rootPath)) {
+                final List<Rule> candidates = index.candidates(childPath);
+                for (Rule rule : rules) {
+                    if (rule.accepts(rootPath, childPath)) {
+                        assertTrue("Rule '" + rule.getDocumentation().getId() + "' not dispatched for " + childPath, candidates.contains(rule));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPomDispatch() throws IOException {
+        final Set<Rule> rules = RulesFactory.load();
+        final RuleDispatchIndex index = RuleDispatchIndex.compile(rules);
+
+        final long pomRules = rules.stream().filter(rule -> rule instanceof PomRule).count();
+        assertEquals(pomRules, index.candidates(Paths.get("pom.xml")).stream().filter(rule -> rule instanceof PomRule).count());
+        assertEquals(0, index.candidates(Paths.get("README.md")).stream().filter(rule -> rule instanceof PomRule).count());
+    }
+
+    @Test
+    public void testEscapedCharactersAreDispatched() throws IOException {
+        final Rule.Documentation documentation = RulesFactory.load().iterator().next().getDocumentation();
+        final List<Rule> rules = new ArrayList<>();
+        for (String accept : new String[] { ".*foo\\x2ejava", ".*foo\\u002ejava", ".*foo\\056java", ".*foo\\x{2e}java", "src/main/java/foo\\x2ejava" }) {
+            rules.add(new XmlRule(documentation, accept, "/"));
+        }
+        final RuleDispatchIndex index = RuleDispatchIndex.compile(rules);
+
+        // Characters after the escape are not a literal suffix ...
+        final Path childPath = Paths.get("src/main/java/foo.java");
+        final List<Rule> candidates = index.candidates(childPath);
+        for (Rule rule : rules) {
+            assertTrue(rule.accepts(TestData.compliantTestPath(), childPath));
+            assertTrue(candidates.contains(rule));
+        }
+    }
+}